@@ -0,0 +1,58 @@
+#!/bin/bash
+
+# Java Security Demo - Load Test Script
+# Compares request latency of the JWT endpoints while a sign-in storm is running.
+# Requires 'hey' (https://github.com/rakyll/hey).
+#
+# Platform threads:  mvn spring-boot:run
+# Virtual threads:   mvn -Pjava21 spring-boot:run -Dspring-boot.run.profiles=virtual
+#
+# Usage: ./load-test.sh <label> [duration] [concurrency]
+#
+# Results depend on the host, so none are kept in the repository; compare the
+# two modes from runs on the same machine.
+
+LABEL=${1:-default}
+DURATION=${2:-30s}
+CONCURRENCY=${3:-200}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+
+echo "=== Java Security Demo - Load Test ($LABEL) ==="
+echo ""
+
+if ! command -v hey > /dev/null; then
+    echo "'hey' is required for this script."
+    exit 1
+fi
+
+TOKEN=$(curl -s -X POST $BASE_URL/api/auth/signin \
+  -H "Content-Type: application/json" \
+  -d '{"username": "user", "password": "user123"}' | \
+  grep -o '"token":"[^"]*' | cut -d'"' -f4)
+
+if [ -z "$TOKEN" ]; then
+    echo "Failed to get token. Make sure the application is running."
+    exit 1
+fi
+
+echo "1. Sign-in storm in the background ($DURATION, 50 concurrent)..."
+hey -z $DURATION -c 50 -m POST -T "application/json" \
+  -d '{"username": "user", "password": "user123"}' \
+  $BASE_URL/api/auth/signin > "load-test-$LABEL-signin.txt" &
+SIGNIN_PID=$!
+
+echo "2. JWT profile requests ($DURATION, $CONCURRENCY concurrent)..."
+hey -z $DURATION -c $CONCURRENCY \
+  -H "Authorization: Bearer $TOKEN" \
+  $BASE_URL/api/jwt/profile > "load-test-$LABEL-profile.txt"
+
+wait $SIGNIN_PID
+
+echo ""
+echo "=== /api/jwt/profile ($LABEL) ==="
+grep -E "Requests/sec|Average|99% in|\[[0-9]{3}\]" "load-test-$LABEL-profile.txt"
+echo ""
+echo "=== /api/auth/signin ($LABEL) ==="
+grep -E "Requests/sec|Average|99% in|\[[0-9]{3}\]" "load-test-$LABEL-signin.txt"
+echo ""
+echo "Full reports: load-test-$LABEL-*.txt"
@@ -2,10 +2,10 @@ package com.demo.javasecurity;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableMethodSecurity(prePostEnabled = true)
+@EnableScheduling
 public class JavaSecurityDemoApplication {
     public static void main(String[] args) {
         SpringApplication.run(JavaSecurityDemoApplication.class, args);
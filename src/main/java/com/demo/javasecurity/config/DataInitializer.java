@@ -10,6 +10,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class DataInitializer implements CommandLineRunner {
 
@@ -33,7 +35,6 @@ public class DataInitializer implements CommandLineRunner {
             admin.setPassword(passwordEncoder.encode("admin123"));
             admin.setRole(Role.ADMIN);
             admin.setEnabled(true);
-            userRepository.save(admin);
 
             // Create Regular User
             User user = new User();
@@ -41,7 +42,8 @@ public class DataInitializer implements CommandLineRunner {
             user.setPassword(passwordEncoder.encode("user123"));
             user.setRole(Role.USER);
             user.setEnabled(true);
-            userRepository.save(user);
+
+            userRepository.saveAll(List.of(admin, user));
 
             logger.info("Demo users created successfully:");
             logger.info("Admin - username: admin, password: admin123");
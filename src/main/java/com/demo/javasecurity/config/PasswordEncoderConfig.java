@@ -0,0 +1,94 @@
+package com.demo.javasecurity.config;
+
+import com.demo.javasecurity.security.PasswordEncoderCalibrator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Password encoder shared by the servlet and reactive security configurations.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    private static final int PBKDF2_SALT_LENGTH = 16;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+
+    /**
+     * The {id} prefixes stored hashes may carry; anything else cannot be verified.
+     */
+    public static final Set<String> ENCODER_IDS = Set.of("bcrypt", "pbkdf2", "argon2");
+
+    // bcrypt, pbkdf2 or argon2; existing hashes keep verifying whichever is chosen
+    @Value("${security.password.encoder:bcrypt}")
+    private String passwordEncoderId;
+
+    // When > 0, BCrypt strength / Argon2 iterations are calibrated at startup to this hash time
+    @Value("${security.password.target-hash-ms:0}")
+    private long targetHashMillis;
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password.pbkdf2-iterations:310000}")
+    private int pbkdf2Iterations;
+
+    @Value("${security.password.argon2-memory-kib:16384}")
+    private int argon2MemoryKib;
+
+    @Value("${security.password.argon2-iterations:2}")
+    private int argon2Iterations;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        int strength = bcryptStrength;
+        int iterations = argon2Iterations;
+        if (targetHashMillis > 0) {
+            if ("bcrypt".equals(passwordEncoderId)) {
+                strength = PasswordEncoderCalibrator.calibrateBCryptStrength(targetHashMillis);
+            } else if ("argon2".equals(passwordEncoderId)) {
+                iterations = PasswordEncoderCalibrator.calibrateArgon2Iterations(targetHashMillis,
+                        ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, argon2MemoryKib);
+            } else {
+                // PBKDF2 hashes do not record their iteration count, so it must stay fixed
+                logger.warn("Ignoring security.password.target-hash-ms for encoder '{}'", passwordEncoderId);
+            }
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        encoders.put("argon2", new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                ARGON2_PARALLELISM, argon2MemoryKib, iterations));
+        if (!ENCODER_IDS.equals(encoders.keySet())) {
+            throw new IllegalStateException("Encoders " + encoders.keySet() + " do not match " + ENCODER_IDS);
+        }
+        if (!encoders.containsKey(passwordEncoderId)) {
+            throw new IllegalStateException("Unknown security.password.encoder: " + passwordEncoderId);
+        }
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(passwordEncoderId, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        logger.info("Password encoder: {} (bcrypt strength {}, pbkdf2 iterations {}, argon2 iterations {})",
+                    passwordEncoderId, strength, pbkdf2Iterations, iterations);
+        return passwordEncoder;
+    }
+}
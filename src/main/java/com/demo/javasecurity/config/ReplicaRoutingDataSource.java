@@ -0,0 +1,51 @@
+package com.demo.javasecurity.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything
+ * else to the primary. The transaction's read-only flag is only known once it
+ * has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which defers choosing a target until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    /**
+     * Runs {@code work} with reads routed to the primary, for data that the
+     * replica may not have caught up with yet. Only connections acquired
+     * inside {@code work} are affected.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_PINNED.remove();
+            }
+        }
+    }
+
+    public static Target currentTarget() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_PINNED.get() == null
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentTarget();
+    }
+}
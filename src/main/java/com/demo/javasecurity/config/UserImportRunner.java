@@ -0,0 +1,68 @@
+package com.demo.javasecurity.config;
+
+import com.demo.javasecurity.dto.UserImportResult;
+import com.demo.javasecurity.service.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command line mode of the bulk import, e.g.
+ * {@code java -jar app.jar --spring.main.web-application-type=none --user-import.file=users.csv}.
+ * Resume an interrupted run with {@code --user-import.skip=<checkpoint>}.
+ */
+@Component
+@ConditionalOnProperty(name = "user-import.file")
+public class UserImportRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportRunner.class);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${user-import.file}")
+    private Path file;
+
+    @Value("${user-import.skip:0}")
+    private long skip;
+
+    @Value("${user-import.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(String... args) throws Exception {
+        UserImportService.Format format = UserImportService.Format.forFileName(file.getFileName().toString());
+        if (format == null) {
+            throw new IllegalArgumentException("Cannot tell the format of " + file + ", use .csv, .ndjson or .jsonl");
+        }
+
+        UserImportResult result;
+        try (InputStream input = Files.newInputStream(file)) {
+            result = userImportService.importUsers(input, format, skip);
+        }
+        for (UserImportResult.RecordError error : result.getErrors()) {
+            logger.warn("Rejected record {}: {}", error.getRecord(), error.getMessage());
+        }
+        if (!result.isCompleted()) {
+            logger.error("Resume with --user-import.skip={}", result.getCheckpoint());
+        }
+
+        if (exitWhenDone) {
+            int exitCode = result.isCompleted() ? 0 : 1;
+            System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+        }
+    }
+}
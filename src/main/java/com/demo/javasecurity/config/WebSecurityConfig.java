@@ -2,23 +2,41 @@ package com.demo.javasecurity.config;
 
 import com.demo.javasecurity.security.AuthEntryPointJwt;
 import com.demo.javasecurity.security.AuthTokenFilter;
+import com.demo.javasecurity.security.CompiledPreAuthorizeManager;
+import com.demo.javasecurity.security.RouteAuthorizationManager;
 import com.demo.javasecurity.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
+import org.springframework.aop.Advisor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationManagerAfterMethodInterceptor;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PostFilterAuthorizationMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.PreFilterAuthorizationMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+// @PreAuthorize is handled by preAuthorizeAuthorizationMethodInterceptor() below
+@EnableMethodSecurity(prePostEnabled = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebSecurityConfig {
 
     @Autowired
@@ -27,16 +45,29 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
     }
 
+    // The filter runs inside the security chain; keep Boot from also adding it to the servlet container
+    @Bean
+    public FilterRegistrationBean<AuthTokenFilter> authenticationJwtTokenFilterRegistration(AuthTokenFilter filter) {
+        FilterRegistrationBean<AuthTokenFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-hashes and stores the password on login when its encoding is outdated
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -45,9 +76,67 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * Evaluates @PreAuthorize with expressions compiled once per method into
+     * Java predicates, falling back to SpEL for anything the compiler does not cover.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationMethodInterceptor(ApplicationContext context) {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(context);
+        PreAuthorizeAuthorizationManager fallback = new PreAuthorizeAuthorizationManager();
+        fallback.setExpressionHandler(expressionHandler);
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(new CompiledPreAuthorizeManager(fallback));
+    }
+
+    // The remaining pre/post annotations keep Spring's default handling
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor postAuthorizeAuthorizationMethodInterceptor() {
+        return AuthorizationManagerAfterMethodInterceptor.postAuthorize();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preFilterAuthorizationMethodInterceptor() {
+        return new PreFilterAuthorizationMethodInterceptor();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor postFilterAuthorizationMethodInterceptor() {
+        return new PostFilterAuthorizationMethodInterceptor();
+    }
+
+    @Bean
+    public RouteAuthorizationManager routeAuthorizationManager() {
+        return RouteAuthorizationManager.builder()
+                // Public endpoints
+                .permitAll("/api/auth/**", "/api/public/**", "/h2-console/**")
+
+                // Batch token verification is for authenticated services only
+                .authenticated("/api/auth/tokens:batchVerify")
+
+                // Basic Security Endpoints - HTTP Basic Auth
+                .authenticated("/api/basic/**")
+
+                // JWT Security Endpoints - JWT Token Required
+                .authenticated("/api/jwt/**")
+
+                // Method Level Security Endpoints - JWT Token + Role Check
+                .authenticated("/api/method/**")
+
+                // Admin only endpoints
+                .hasRole("ADMIN", "/api/admin/**")
+
+                // Actuator: health is public, metrics expose internals and are admin only
+                .permitAll("/actuator/health/**")
+                .hasRole("ADMIN", "/actuator/**")
+
+                // Any other request needs authentication
+                .anyRequest(RouteAuthorizationManager.Rule.authenticated())
+                .build();
     }
 
     @Bean
@@ -63,27 +152,11 @@ public class WebSecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Route rules are resolved in one trie lookup, see routeAuthorizationManager().
+                // The async dispatch that completes a streamed response was authorized as a request already.
                 .authorizeHttpRequests(authz -> authz
-                        // Public endpoints
-                        .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/public/**").permitAll()
-                        .requestMatchers("/h2-console/**").permitAll()
-
-                        // Basic Security Endpoints - HTTP Basic Auth
-                        .requestMatchers("/api/basic/**").authenticated()
-
-                        // JWT Security Endpoints - JWT Token Required
-                        .requestMatchers("/api/jwt/**").authenticated()
-
-                        // Method Level Security Endpoints - JWT Token + Role Check
-                        .requestMatchers("/api/method/**").authenticated()
-
-                        // Admin only endpoints
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
-
-                        // Any other request needs authentication
-                        .anyRequest().authenticated()
-                );
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .anyRequest().access(routeAuthorizationManager()));
 
         // For H2 Console
         http.headers(headers -> headers.frameOptions().sameOrigin());
@@ -1,79 +1,128 @@
 package com.demo.javasecurity.controller;
 
+import com.demo.javasecurity.dto.AdminResponse;
+import com.demo.javasecurity.dto.BatchIssueRequest;
+import com.demo.javasecurity.dto.UserSummary;
+import com.demo.javasecurity.model.AuditEvent;
 import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.service.AdminOperations;
+import com.demo.javasecurity.service.UserAdminService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/admin")
 public class AdminController {
 
+    @Autowired
+    private AdminOperations adminOperations;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserAdminService userAdminService;
+
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getAdminDashboard() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = (User) authentication.getPrincipal();
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Admin Dashboard - Configuration Level Security");
-        response.put("username", user.getUsername());
-        response.put("role", user.getRole());
-        response.put("adminStats", Map.of(
-            "totalUsers", 150,
-            "activeUsers", 142,
-            "systemHealth", "EXCELLENT",
-            "securityAlerts", 0,
-            "lastBackup", "2025-10-04 08:00:00"
-        ));
-        response.put("security", "CONFIGURATION_LEVEL_ADMIN_ONLY");
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<AdminResponse.Dashboard> getAdminDashboard() {
+        return ResponseEntity.ok(adminOperations.dashboard(currentUser()));
     }
 
     @GetMapping("/users")
-    public ResponseEntity<Map<String, Object>> getAllUsers() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "All users data - Admin access required");
-        response.put("users", new Object[]{
-            Map.of("id", 1, "username", "admin", "role", "ADMIN", "status", "ACTIVE"),
-            Map.of("id", 2, "username", "user", "role", "USER", "status", "ACTIVE")
-        });
-        response.put("security", "CONFIGURATION_LEVEL_ADMIN_ONLY");
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<AdminResponse.UsersPage> getAllUsers(@RequestParam(defaultValue = "0") long after,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(adminOperations.usersPage(after, limit));
     }
 
-    @PostMapping("/system-config")
-    public ResponseEntity<Map<String, Object>> updateSystemConfig(@RequestBody Map<String, Object> config) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = (User) authentication.getPrincipal();
+    // Every user as one JSON object per line, read through a database cursor
+    @GetMapping(value = "/users/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@RequestParam(defaultValue = "0") long after) {
+        ObjectWriter writer = objectMapper.writerFor(UserSummary.class).withRootValueSeparator("");
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try (generator) {
+                userAdminService.streamUsers(after, summary -> {
+                    try {
+                        writer.writeValue(generator, summary);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "System configuration updated");
-        response.put("updatedBy", user.getUsername());
-        response.put("configChanges", config);
-        response.put("result", "SUCCESS");
-        response.put("security", "CONFIGURATION_LEVEL_ADMIN_ONLY");
+    // Streams a CSV or NDJSON upload into the users table, see UserImportService
+    @PostMapping("/users:import")
+    public ResponseEntity<AdminResponse> importUsers(@RequestParam(defaultValue = "0") long skip,
+                                                     HttpServletRequest request) throws IOException {
+        return adminOperations.importUsers(request.getInputStream(), request.getContentType(), skip, currentUser());
+    }
 
-        return ResponseEntity.ok(response);
+    @PostMapping("/system-config")
+    public ResponseEntity<AdminResponse.SystemConfig> updateSystemConfig(@RequestBody Map<String, Object> config) {
+        return ResponseEntity.ok(adminOperations.updateSystemConfig(config, currentUser()));
     }
 
     @DeleteMapping("/user/{userId}")
-    public ResponseEntity<Map<String, Object>> deleteUser(@PathVariable Long userId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = (User) authentication.getPrincipal();
+    public ResponseEntity<AdminResponse> deleteUser(@PathVariable Long userId) {
+        return adminOperations.deleteUser(userId, currentUser());
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "User deletion simulated (Admin only operation)");
-        response.put("deletedUserId", userId);
-        response.put("performedBy", user.getUsername());
-        response.put("result", "SIMULATED_SUCCESS");
-        response.put("security", "CONFIGURATION_LEVEL_ADMIN_ONLY");
+    @PostMapping("/user/{userId}/disable")
+    public ResponseEntity<AdminResponse> disableUser(@PathVariable Long userId) {
+        return adminOperations.setEnabled(userId, false, currentUser());
+    }
 
-        return ResponseEntity.ok(response);
+    @PostMapping("/user/{userId}/enable")
+    public ResponseEntity<AdminResponse> enableUser(@PathVariable Long userId) {
+        return adminOperations.setEnabled(userId, true, currentUser());
+    }
+
+    @PostMapping("/tokens/revoke")
+    public ResponseEntity<AdminResponse> revokeToken(@RequestBody Map<String, Object> request) {
+        return adminOperations.revokeToken(request, currentUser());
+    }
+
+    @GetMapping("/tokens/revocations")
+    public ResponseEntity<AdminResponse.RevocationStats> getRevocationStats() {
+        return ResponseEntity.ok(adminOperations.revocationStats());
+    }
+
+    // Recent audit events, newest first; ?type= and ?user= narrow the result
+    @GetMapping("/audit")
+    public ResponseEntity<AdminResponse.AuditEvents> getAuditEvents(@RequestParam(defaultValue = "100") int limit,
+                                                                    @RequestParam(required = false) AuditEvent.Type type,
+                                                                    @RequestParam(required = false) String user) {
+        return ResponseEntity.ok(adminOperations.auditEvents(limit, type, user));
+    }
+
+    @PostMapping("/tokens:batchIssue")
+    public ResponseEntity<AdminResponse> batchIssueTokens(@Valid @RequestBody BatchIssueRequest request) {
+        return adminOperations.batchIssueTokens(request.getUsernames(), currentUser());
+    }
+
+    private static User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
     }
 }
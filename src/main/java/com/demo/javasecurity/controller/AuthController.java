@@ -1,21 +1,45 @@
 package com.demo.javasecurity.controller;
 
+import com.demo.javasecurity.dto.BatchVerifyRequest;
 import com.demo.javasecurity.dto.JwtResponse;
 import com.demo.javasecurity.dto.LoginRequest;
+import com.demo.javasecurity.dto.RefreshTokenRequest;
+import com.demo.javasecurity.dto.TokenCheckResult;
+import com.demo.javasecurity.model.AuditEvent;
 import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.security.LoginExecutor;
+import com.demo.javasecurity.security.LoginRateLimiter;
+import com.demo.javasecurity.security.RejectionReason;
+import com.demo.javasecurity.service.AuditLog;
+import com.demo.javasecurity.service.LoginAttemptService;
+import com.demo.javasecurity.service.RefreshTokenService;
+import com.demo.javasecurity.service.TokenBatchService;
 import com.demo.javasecurity.util.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/auth")
 public class AuthController {
 
@@ -25,24 +49,125 @@ public class AuthController {
     @Autowired
     JwtUtil jwtUtils;
 
+    @Autowired
+    LoginExecutor loginExecutor;
+
+    @Autowired
+    LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    LoginAttemptService loginAttemptService;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    TokenBatchService tokenBatchService;
+
+    @Autowired
+    AuditLog auditLog;
+
+    @Value("${security.login.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    // Attempts over the per-username / per-IP rate are refused with 429 before any
+    // hashing. Password verification runs on the bounded login pool; the servlet thread
+    // is released while it waits. The response is stateless, so no SecurityContext is set.
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+        Duration retryAfter = loginRateLimiter.tryAcquire(loginRequest.getUsername(), clientIp);
+        if (!retryAfter.isZero()) {
+            auditLog.record(AuditEvent.Type.SIGNIN_THROTTLED, loginRequest.getUsername(), clientIp, null);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(retryAfter)))
+                    .body(errorBody(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts, please retry later")));
+        }
+        try {
+            return loginExecutor.submit(() -> signin(loginRequest, clientIp));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(errorBody(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in requests, please retry later")));
+        }
+    }
+
+    // Exchanges a refresh token for a new access token and a rotated refresh token.
+    // An unknown, expired or reused token ends in the 401 entry point.
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return rotate(refreshRequest.getRefreshToken());
+    }
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    // Verifies many tokens in one call; results are returned in request order.
+    // Unlike the rest of /api/auth this requires an authenticated caller.
+    @PostMapping("/tokens:batchVerify")
+    public ResponseEntity<Map<String, Object>> batchVerify(@Valid @RequestBody BatchVerifyRequest batchRequest) {
+        List<String> tokens = batchRequest.getTokens();
+        if (tokens.size() > tokenBatchService.getMaxBatchSize()) {
+            return ResponseEntity.badRequest().body(errorBody(HttpStatus.BAD_REQUEST,
+                    "At most " + tokenBatchService.getMaxBatchSize() + " tokens per batch"));
+        }
+        List<TokenCheckResult> results = tokenBatchService.verify(tokens);
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken((UserDetails) authentication.getPrincipal());
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        response.put("count", results.size());
+        response.put("valid", results.stream().filter(TokenCheckResult::isValid).count());
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> signin(LoginRequest loginRequest, String clientIp) {
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        } catch (AuthenticationException e) {
+            auditLog.record(AuditEvent.Type.SIGNIN_FAILURE, loginRequest.getUsername(), clientIp,
+                            RejectionReason.of(e).name());
+            if (e instanceof BadCredentialsException) {
+                loginAttemptService.loginFailed(loginRequest.getUsername());
+            }
+            throw e;
+        }
 
         User userPrincipal = (User) authentication.getPrincipal();
+        loginAttemptService.loginSucceeded(userPrincipal);
+        auditLog.record(AuditEvent.Type.SIGNIN_SUCCESS, userPrincipal.getUsername(), clientIp, null);
+        String refreshToken = refreshTokenService.issue(userPrincipal);
+
+        String jwt = jwtUtils.generateJwtToken(userPrincipal);
+
+        return ResponseEntity.ok(tokenResponse(jwt, userPrincipal, refreshToken));
+    }
+
+    private ResponseEntity<?> rotate(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.getUser();
+        String jwt = jwtUtils.generateJwtToken(user);
+        return ResponseEntity.ok(tokenResponse(jwt, user, rotation.getRefreshToken()));
+    }
 
-        return ResponseEntity.ok(new JwtResponse(jwt,
-                                               userPrincipal.getUsername(),
-                                               userPrincipal.getRole().name()));
+    private JwtResponse tokenResponse(String jwt, User user, String refreshToken) {
+        return new JwtResponse(jwt, user.getUsername(), user.getRole().name(), refreshToken,
+                               jwtUtils.getJwtExpirationMs() / 1000);
     }
 
     @GetMapping("/test")
     public ResponseEntity<String> testEndpoint() {
         return ResponseEntity.ok("Authentication endpoint is working!");
     }
+
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    private static Map<String, Object> errorBody(HttpStatus status, String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return body;
+    }
 }
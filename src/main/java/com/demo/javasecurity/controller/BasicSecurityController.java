@@ -1,5 +1,7 @@
 package com.demo.javasecurity.controller;
 
+import com.demo.javasecurity.dto.UserInfoResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,21 +11,15 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/basic")
 public class BasicSecurityController {
 
     @GetMapping("/user-info")
-    public ResponseEntity<Map<String, Object>> getUserInfo() {
+    public ResponseEntity<UserInfoResponse> getUserInfo() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Basic Authentication successful");
-        response.put("username", authentication.getName());
-        response.put("authorities", authentication.getAuthorities());
-        response.put("security", "HTTP_BASIC");
-        response.put("timestamp", System.currentTimeMillis());
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(UserInfoResponse.basic(authentication.getName(), authentication.getAuthorities()));
     }
 
     @GetMapping("/protected")
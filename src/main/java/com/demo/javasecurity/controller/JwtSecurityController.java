@@ -1,80 +1,76 @@
 package com.demo.javasecurity.controller;
 
+import com.demo.javasecurity.dto.DashboardResponse;
+import com.demo.javasecurity.dto.ProfileResponse;
+import com.demo.javasecurity.dto.SecureActionResponse;
 import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.service.ActivityMetrics;
+import com.demo.javasecurity.util.JsonBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/jwt")
 public class JwtSecurityController {
 
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JsonBody dataBody;
+
+    @PostConstruct
+    public void init() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("message", "This is JWT-protected sensitive data");
+        data.put("data", Map.of(
+            "customerCount", 1542,
+            "revenue", "$125,000",
+            "transactions", 3421
+        ));
+        data.put("security", "JWT_TOKEN");
+        dataBody = JsonBody.of(objectMapper, data);
+    }
+
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getUserProfile() {
+    public ResponseEntity<ProfileResponse> getUserProfile() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "JWT Authentication successful");
-        response.put("username", user.getUsername());
-        response.put("role", user.getRole());
-        response.put("authorities", user.getAuthorities());
-        response.put("security", "JWT_TOKEN");
-        response.put("timestamp", System.currentTimeMillis());
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ProfileResponse.jwt(user.getUsername(), user.getRole(), user.getAuthorities()));
     }
 
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getDashboard() {
+    public ResponseEntity<DashboardResponse> getDashboard() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Welcome to your secure dashboard");
-        response.put("user", user.getUsername());
-        response.put("role", user.getRole());
-        response.put("dashboardData", Map.of(
-            "totalUsers", 125,
-            "activeUsers", 98,
-            "systemStatus", "HEALTHY"
-        ));
-        response.put("security", "JWT_TOKEN");
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(DashboardResponse.jwt(user.getUsername(), user.getRole(),
+                                                       activityMetrics.totalUsers(), activityMetrics.activeUsers()));
     }
 
     @PostMapping("/secure-action")
-    public ResponseEntity<Map<String, Object>> performSecureAction(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<SecureActionResponse> performSecureAction(@RequestBody Map<String, Object> request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Secure action performed with JWT authentication");
-        response.put("performedBy", user.getUsername());
-        response.put("userRole", user.getRole());
-        response.put("action", request.get("action"));
-        response.put("result", "SUCCESS");
-        response.put("security", "JWT_TOKEN");
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(SecureActionResponse.jwt(user.getUsername(), user.getRole(), request.get("action")));
     }
 
     @GetMapping("/data")
-    public ResponseEntity<Map<String, Object>> getSecureData() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "This is JWT-protected sensitive data");
-        response.put("data", Map.of(
-            "customerCount", 1542,
-            "revenue", "$125,000",
-            "transactions", 3421
-        ));
-        response.put("security", "JWT_TOKEN");
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getSecureData() {
+        return dataBody.toResponse();
     }
 }
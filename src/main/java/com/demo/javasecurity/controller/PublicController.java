@@ -1,15 +1,51 @@
 package com.demo.javasecurity.controller;
 
+import com.demo.javasecurity.util.JsonBody;
+import com.demo.javasecurity.util.JwtKeyRing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/public")
 public class PublicController {
 
+    private static final Duration JWKS_MAX_AGE = Duration.ofHours(1);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    private JsonBody infoBody;
+
+    @PostConstruct
+    public void init() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("application", "Java Security Demo");
+        info.put("version", "1.0.0");
+        info.put("description", "Demonstrating Basic, Method Level, and JWT Security");
+        info.put("endpoints", new String[]{
+            "/api/public/** - No authentication",
+            "/api/basic/** - HTTP Basic Authentication",
+            "/api/jwt/** - JWT Token Authentication",
+            "/api/method/** - Method Level Security with Role Checks",
+            "/api/admin/** - Admin Role Required"
+        });
+        infoBody = JsonBody.of(objectMapper, info);
+    }
+
     @GetMapping("/hello")
     public ResponseEntity<Map<String, Object>> publicEndpoint() {
         Map<String, Object> response = new HashMap<>();
@@ -20,18 +56,24 @@ public class PublicController {
     }
 
     @GetMapping("/info")
-    public ResponseEntity<Map<String, Object>> getPublicInfo() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("application", "Java Security Demo");
-        response.put("version", "1.0.0");
-        response.put("description", "Demonstrating Basic, Method Level, and JWT Security");
-        response.put("endpoints", new String[]{
-            "/api/public/** - No authentication",
-            "/api/basic/** - HTTP Basic Authentication",
-            "/api/jwt/** - JWT Token Authentication",
-            "/api/method/** - Method Level Security with Role Checks",
-            "/api/admin/** - Admin Role Required"
-        });
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getPublicInfo() {
+        return infoBody.toResponse();
+    }
+
+    // Public keys for verifying access tokens. A new key is published one rotation
+    // interval before it signs anything, so caching for less than that is safe.
+    @GetMapping("/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Map<String, Object> jwks = keyRing.getJwks();
+        String etag = keyRing.getJwksEtag();
+        Duration maxAge = keyRing.getRotationInterval().dividedBy(2);
+        CacheControl cacheControl = CacheControl.maxAge(maxAge.compareTo(JWKS_MAX_AGE) < 0 ? maxAge : JWKS_MAX_AGE)
+                .cachePublic();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag(etag).body(jwks);
     }
 }
@@ -0,0 +1,122 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.Role;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bodies of the /api/admin endpoints, with the keys they returned as maps;
+ * {@link Rejected} is the body of any 4xx. The read-only stats bodies have no
+ * message, so they are grouped here without being an {@code AdminResponse}.
+ */
+public sealed interface AdminResponse {
+
+    String ADMIN_ONLY = "CONFIGURATION_LEVEL_ADMIN_ONLY";
+
+    String SUCCESS = "SUCCESS";
+
+    // Declared so that Jackson, and with it WebFlux's JSON encoder, can serialize the interface type
+    @JsonProperty
+    String message();
+
+    record Rejected(String message, String result) implements AdminResponse {
+
+        public static Rejected rejected(String message) {
+            return new Rejected(message, "REJECTED");
+        }
+
+        public static Rejected notFound(String message) {
+            return new Rejected(message, "NOT_FOUND");
+        }
+    }
+
+    record Dashboard(String message, String username, Role role, Map<String, Object> adminStats, String security)
+            implements AdminResponse {
+
+        public static Dashboard of(String username, Role role, Map<String, Object> adminStats) {
+            return new Dashboard("Admin Dashboard - Configuration Level Security", username, role, adminStats,
+                                 ADMIN_ONLY);
+        }
+    }
+
+    record SystemConfig(String message, String updatedBy, Map<String, Object> configChanges, String result,
+                        String security) implements AdminResponse {
+
+        public static SystemConfig of(String updatedBy, Map<String, Object> configChanges) {
+            return new SystemConfig("System configuration updated", updatedBy, configChanges, SUCCESS, ADMIN_ONLY);
+        }
+    }
+
+    // nextCursor is passed as ?after= for the next page; null once the last page is reached
+    record UsersPage(String message, List<UserSummary> users, int count, Long nextCursor, String security)
+            implements AdminResponse {
+
+        public static UsersPage of(List<UserSummary> users, Long nextCursor) {
+            return new UsersPage("All users data - Admin access required", users, users.size(), nextCursor,
+                                 ADMIN_ONLY);
+        }
+    }
+
+    record UserDeleted(String message, Long deletedUserId, String performedBy, String result, String security)
+            implements AdminResponse {
+
+        public static UserDeleted of(Long deletedUserId, String performedBy) {
+            return new UserDeleted("User deleted (Admin only operation)", deletedUserId, performedBy, SUCCESS,
+                                   ADMIN_ONLY);
+        }
+    }
+
+    record UserUpdated(String message, UserSummary user, String performedBy, String result, String security)
+            implements AdminResponse {
+
+        public static UserUpdated of(String message, UserSummary user, String performedBy) {
+            return new UserUpdated(message, user, performedBy, SUCCESS, ADMIN_ONLY);
+        }
+    }
+
+    record UsersImported(String message, @JsonProperty("import") UserImportResult importResult, String performedBy,
+                         String result, String security) implements AdminResponse {
+
+        public static UsersImported of(UserImportResult importResult, String performedBy) {
+            return new UsersImported(importResult.isCompleted()
+                                             ? "Users imported"
+                                             : "User import failed, resume with ?skip=" + importResult.getCheckpoint(),
+                                     importResult, performedBy, importResult.isCompleted() ? SUCCESS : "FAILED",
+                                     ADMIN_ONLY);
+        }
+    }
+
+    record TokenRevoked(String message, String revokedUntil, String performedBy, String result, String security)
+            implements AdminResponse {
+
+        public static TokenRevoked of(String revokedUntil, String performedBy) {
+            return new TokenRevoked("Token revoked", revokedUntil, performedBy, SUCCESS, ADMIN_ONLY);
+        }
+    }
+
+    record RevocationStats(Map<String, Object> revocationList, Map<String, Object> sharedState, String security) {
+
+        public static RevocationStats of(Map<String, Object> revocationList, Map<String, Object> sharedState) {
+            return new RevocationStats(revocationList, sharedState, ADMIN_ONLY);
+        }
+    }
+
+    record TokensIssued(String message, List<IssuedToken> results, int count, long issued, String performedBy,
+                        String security) implements AdminResponse {
+
+        public static TokensIssued of(List<IssuedToken> results, String performedBy) {
+            return new TokensIssued("Access tokens issued in batch", results, results.size(),
+                                    results.stream().filter(issued -> issued.getToken() != null).count(),
+                                    performedBy, ADMIN_ONLY);
+        }
+    }
+
+    record AuditEvents(List<Map<String, Object>> events, int count, Map<String, Object> auditLog, String security) {
+
+        public static AuditEvents of(List<Map<String, Object>> events, Map<String, Object> auditLog) {
+            return new AuditEvents(events, events.size(), auditLog, ADMIN_ONLY);
+        }
+    }
+}
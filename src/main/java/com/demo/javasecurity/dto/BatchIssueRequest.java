@@ -0,0 +1,27 @@
+package com.demo.javasecurity.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchIssueRequest {
+
+    @NotEmpty(message = "At least one username is required")
+    private List<String> usernames;
+
+    // Constructors
+    public BatchIssueRequest() {}
+
+    public BatchIssueRequest(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    // Getters and Setters
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+}
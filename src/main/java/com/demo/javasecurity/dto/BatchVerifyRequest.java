@@ -0,0 +1,27 @@
+package com.demo.javasecurity.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchVerifyRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    private List<String> tokens;
+
+    // Constructors
+    public BatchVerifyRequest() {}
+
+    public BatchVerifyRequest(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    // Getters and Setters
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+}
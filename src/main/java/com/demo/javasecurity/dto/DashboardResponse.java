@@ -0,0 +1,17 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.Role;
+
+/**
+ * Body of /api/jwt/dashboard.
+ */
+public record DashboardResponse(String message, String user, Role role, DashboardData dashboardData,
+                                String security) {
+
+    public record DashboardData(long totalUsers, long activeUsers) {}
+
+    public static DashboardResponse jwt(String user, Role role, long totalUsers, long activeUsers) {
+        return new DashboardResponse("Welcome to your secure dashboard", user, role,
+                                     new DashboardData(totalUsers, activeUsers), "JWT_TOKEN");
+    }
+}
@@ -0,0 +1,48 @@
+package com.demo.javasecurity.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome for one username of a batch issuance, in request order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IssuedToken {
+
+    private String username;
+    private String token;
+    private String error;
+
+    // Constructors
+    public IssuedToken() {}
+
+    public IssuedToken(String username, String token, String error) {
+        this.username = username;
+        this.token = token;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
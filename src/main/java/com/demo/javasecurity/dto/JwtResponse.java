@@ -6,6 +6,9 @@ public class JwtResponse {
     private String type = "Bearer";
     private String username;
     private String role;
+    private String refreshToken;
+    // Access token lifetime in seconds
+    private long expiresIn;
 
     // Constructors
     public JwtResponse() {}
@@ -16,6 +19,12 @@ public class JwtResponse {
         this.role = role;
     }
 
+    public JwtResponse(String token, String username, String role, String refreshToken, long expiresIn) {
+        this(token, username, role);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     // Getters and Setters
     public String getToken() {
         return token;
@@ -48,4 +57,20 @@ public class JwtResponse {
     public void setRole(String role) {
         this.role = role;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
 }
@@ -0,0 +1,71 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.Role;
+
+import java.util.Map;
+
+/**
+ * Bodies of the /api/method endpoints, with the keys they returned as maps.
+ */
+public sealed interface MethodSecurityResponse {
+
+    String METHOD_LEVEL = "METHOD_LEVEL_SECURITY";
+
+    Map<String, String> ADMIN_DATA = Map.of(
+        "systemLogs", "Access granted to system logs",
+        "userManagement", "Full user management access",
+        "systemSettings", "Configuration access granted"
+    );
+
+    Map<String, String> USER_DATA = Map.of(
+        "personalDashboard", "User-specific dashboard",
+        "userPreferences", "Personal settings access",
+        "userReports", "User activity reports"
+    );
+
+    record Access(String message, String username, Role role, String security, String accessLevel)
+            implements MethodSecurityResponse {
+
+        public static Access allAuthenticated(String username, Role role) {
+            return new Access("This endpoint is accessible to both ADMIN and USER roles", username, role,
+                              METHOD_LEVEL, "ALL_AUTHENTICATED");
+        }
+    }
+
+    record AdminData(String message, String username, Role role, Map<String, String> adminData, String security,
+                     String accessLevel) implements MethodSecurityResponse {
+
+        public static AdminData of(String username, Role role) {
+            return new AdminData("This endpoint is accessible only to ADMIN role", username, role, ADMIN_DATA,
+                                 METHOD_LEVEL, "ADMIN_ONLY");
+        }
+    }
+
+    record UserData(String message, String username, Role role, Map<String, String> userData, String security,
+                    String accessLevel) implements MethodSecurityResponse {
+
+        public static UserData of(String username, Role role) {
+            return new UserData("This endpoint is accessible only to USER role (not ADMIN)", username, role,
+                                USER_DATA, METHOD_LEVEL, "USER_ONLY");
+        }
+    }
+
+    // action is echoed from the request as is
+    record AdminAction(String message, String performedBy, Object action, String result, String security,
+                       long timestamp) implements MethodSecurityResponse {
+
+        public static AdminAction of(String performedBy, Object action) {
+            return new AdminAction("Admin action performed successfully", performedBy, action,
+                                   "ADMIN_ACTION_COMPLETED", METHOD_LEVEL, System.currentTimeMillis());
+        }
+    }
+
+    record UserCheck(String message, String requestedUser, String currentUser, Role role, String security,
+                     String accessType) implements MethodSecurityResponse {
+
+        public static UserCheck of(String requestedUser, String currentUser, Role role) {
+            return new UserCheck("User can access their own data or ADMIN can access any user data", requestedUser,
+                                 currentUser, role, METHOD_LEVEL, role == Role.ADMIN ? "ADMIN_ACCESS" : "SELF_ACCESS");
+        }
+    }
+}
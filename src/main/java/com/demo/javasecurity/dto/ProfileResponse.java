@@ -0,0 +1,18 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Body of /api/jwt/profile.
+ */
+public record ProfileResponse(String message, String username, Role role,
+                              Collection<? extends GrantedAuthority> authorities, String security, long timestamp) {
+
+    public static ProfileResponse jwt(String username, Role role, Collection<? extends GrantedAuthority> authorities) {
+        return new ProfileResponse("JWT Authentication successful", username, role, authorities,
+                                   "JWT_TOKEN", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,15 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.Role;
+
+/**
+ * Body of /api/jwt/secure-action; {@code action} is echoed from the request as is.
+ */
+public record SecureActionResponse(String message, String performedBy, Role userRole, Object action, String result,
+                                   String security) {
+
+    public static SecureActionResponse jwt(String performedBy, Role userRole, Object action) {
+        return new SecureActionResponse("Secure action performed with JWT authentication", performedBy, userRole,
+                                        action, "SUCCESS", "JWT_TOKEN");
+    }
+}
@@ -0,0 +1,81 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.util.JwtVerificationResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome for one token of a batch verification, in request order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenCheckResult {
+
+    private boolean valid;
+    private String subject;
+    private String tokenId;
+    // Epoch seconds
+    private Long expiresAt;
+    private String reason;
+
+    // Constructors
+    public TokenCheckResult() {}
+
+    public static TokenCheckResult of(JwtVerificationResult result) {
+        TokenCheckResult check = new TokenCheckResult();
+        check.valid = result.isValid();
+        if (result.isValid()) {
+            check.subject = result.getSubject();
+            check.tokenId = result.getTokenId();
+            check.expiresAt = result.getExpiresAt() != null ? result.getExpiresAt().getEpochSecond() : null;
+        } else {
+            check.reason = result.getFailureReason().name();
+        }
+        return check;
+    }
+
+    public static TokenCheckResult rejected(String reason) {
+        TokenCheckResult check = new TokenCheckResult();
+        check.reason = reason;
+        return check;
+    }
+
+    // Getters and Setters
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
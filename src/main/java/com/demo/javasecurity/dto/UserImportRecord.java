@@ -0,0 +1,56 @@
+package com.demo.javasecurity.dto;
+
+/**
+ * One user of a bulk import (a CSV row or an NDJSON line). Either a plain
+ * {@code password}, which is hashed on import, or an already encoded
+ * {@code passwordHash} (e.g. "{bcrypt}$2a$...") that is stored as is.
+ */
+public class UserImportRecord {
+
+    private String username;
+    private String password;
+    private String passwordHash;
+    private String role;
+    private Boolean enabled;
+
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,122 @@
+package com.demo.javasecurity.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. {@code checkpoint} is the number of input
+ * records that are fully committed; pass it as {@code skip} to resume an
+ * interrupted import.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+
+    private final String format;
+    private final long skipped;
+    private long imported;
+    private long existing;
+    private long rejected;
+    private long checkpoint;
+    private boolean completed;
+    private String failure;
+    private long elapsedMs;
+    private final List<RecordError> errors = new ArrayList<>();
+
+    public UserImportResult(String format, long skipped) {
+        this.format = format;
+        this.skipped = skipped;
+        this.checkpoint = skipped;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public long getExisting() {
+        return existing;
+    }
+
+    public void addExisting(long count) {
+        existing += count;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void addRejected(long count) {
+        rejected += count;
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(long checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * A rejected input record, by its 1-based position among the data records.
+     */
+    public static class RecordError {
+
+        private final long record;
+        private final String message;
+
+        public RecordError(long record, String message) {
+            this.record = record;
+            this.message = message;
+        }
+
+        public long getRecord() {
+            return record;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
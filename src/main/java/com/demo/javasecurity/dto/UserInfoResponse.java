@@ -0,0 +1,17 @@
+package com.demo.javasecurity.dto;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Body of /api/basic/user-info.
+ */
+public record UserInfoResponse(String message, String username, Collection<? extends GrantedAuthority> authorities,
+                               String security, long timestamp) {
+
+    public static UserInfoResponse basic(String username, Collection<? extends GrantedAuthority> authorities) {
+        return new UserInfoResponse("Basic Authentication successful", username, authorities,
+                                    "HTTP_BASIC", System.currentTimeMillis());
+    }
+}
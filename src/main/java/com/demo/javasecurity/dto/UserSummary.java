@@ -0,0 +1,62 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.User;
+
+/**
+ * Admin view of a user, without credentials.
+ */
+public class UserSummary {
+
+    private Long id;
+    private String username;
+    private String role;
+    private String status;
+
+    // Constructors
+    public UserSummary() {}
+
+    public UserSummary(Long id, String username, String role, String status) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.status = status;
+    }
+
+    public static UserSummary of(User user) {
+        String status = !user.isEnabled() ? "DISABLED" : !user.isAccountNonLocked() ? "LOCKED" : "ACTIVE";
+        return new UserSummary(user.getId(), user.getUsername(), user.getRole().name(), status);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
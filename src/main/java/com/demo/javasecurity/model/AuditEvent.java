@@ -0,0 +1,55 @@
+package com.demo.javasecurity.model;
+
+/**
+ * A security-relevant event recorded in the audit log: sign-ins, rejected
+ * tokens, refresh token reuse and administrative actions.
+ */
+public class AuditEvent {
+
+    public enum Type {
+        SIGNIN_SUCCESS,
+        SIGNIN_FAILURE,
+        SIGNIN_THROTTLED,
+        ACCOUNT_LOCKED,
+        TOKEN_REJECTED,
+        REFRESH_TOKEN_REUSE,
+        ADMIN_ACTION
+    }
+
+    private final long timestamp;
+    private final Type type;
+    private final String username;
+    private final String clientIp;
+    private final String detail;
+
+    public AuditEvent(long timestamp, Type type, String username, String clientIp, String detail) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.username = username;
+        this.clientIp = clientIp;
+        this.detail = detail;
+    }
+
+    /**
+     * Epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
@@ -0,0 +1,74 @@
+package com.demo.javasecurity.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A single-use refresh token. Only the SHA-256 of the token is stored. Every
+ * token issued by rotating another one shares its {@code familyId}, so a
+ * reused token can revoke the whole chain.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "ux_refresh_tokens_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "ix_refresh_tokens_family", columnList = "familyId"),
+        @Index(name = "ix_refresh_tokens_user", columnList = "userId")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Base64url SHA-256 of the token value
+    @Column(nullable = false, length = 43)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 22)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Set when the token is exchanged; presenting it again is a reuse
+    private Instant usedAt;
+
+    // Constructors
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, String familyId, Long userId, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getUsedAt() {
+        return usedAt;
+    }
+}
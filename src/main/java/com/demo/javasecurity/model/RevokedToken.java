@@ -0,0 +1,40 @@
+package com.demo.javasecurity.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A revoked access token, kept until the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "ix_revoked_tokens_expires", columnList = "expiresAt")
+})
+public class RevokedToken {
+
+    // The token's jti claim
+    @Id
+    @Column(length = 22)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Constructors
+    public RevokedToken() {}
+
+    public RevokedToken(String tokenId, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -1,22 +1,30 @@
 package com.demo.javasecurity.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "ux_users_username", columnList = "username", unique = true))
+@EntityListeners(UserEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User implements UserDetails {
 
+    // Sequence ids are allocated 50 at a time, which lets Hibernate batch inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
@@ -27,6 +35,12 @@ public class User implements UserDetails {
 
     private boolean enabled = true;
 
+    // Consecutive failed sign-ins; reset on success
+    private int failedAttempts;
+
+    // Sign-in is refused until this instant, see LoginAttemptService
+    private Instant lockedUntil;
+
     // Constructors
     public User() {}
 
@@ -36,6 +50,14 @@ public class User implements UserDetails {
         this.role = role;
     }
 
+    // Detached principal without credentials, see UserRepository.findPrincipalByUsername
+    public User(Long id, String username, Role role, boolean enabled, Instant lockedUntil) {
+        this(username, "", role);
+        this.id = id;
+        this.enabled = enabled;
+        this.lockedUntil = lockedUntil;
+    }
+
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -59,7 +81,7 @@ public class User implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || !lockedUntil.isAfter(Instant.now());
     }
 
     @Override
@@ -100,4 +122,20 @@ public class User implements UserDetails {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public void setFailedAttempts(int failedAttempts) {
+        this.failedAttempts = failedAttempts;
+    }
+
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
 }
@@ -0,0 +1,65 @@
+package com.demo.javasecurity.model;
+
+/**
+ * Published whenever a {@link User} row is inserted, updated or deleted
+ * through JPA (e.g. {@code UserRepository.save}), so that in-memory state
+ * derived from users can be refreshed. Changes made on other instances are
+ * republished locally with {@link #isRemote()} set. A change to several users
+ * at once, e.g. a bulk import, has no user and a {@link #getCount()} above one.
+ */
+public class UserChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long userId;
+    private final String username;
+    private final Type type;
+    // Made on another instance and relayed through SharedAuthState
+    private final boolean remote;
+    // Users covered; 1 unless this is a bulk change
+    private final int count;
+
+    public UserChangedEvent(Long userId, String username, Type type) {
+        this(userId, username, type, false);
+    }
+
+    public UserChangedEvent(Long userId, String username, Type type, boolean remote) {
+        this(userId, username, type, remote, 1);
+    }
+
+    private UserChangedEvent(Long userId, String username, Type type, boolean remote, int count) {
+        this.userId = userId;
+        this.username = username;
+        this.type = type;
+        this.remote = remote;
+        this.count = count;
+    }
+
+    public static UserChangedEvent bulk(Type type, int count) {
+        return new UserChangedEvent(null, null, type, false, count);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,57 @@
+package com.demo.javasecurity.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.function.Supplier;
+
+/**
+ * JPA callbacks for {@link User}. Instantiated by Hibernate through Spring's
+ * bean container, so dependencies are injected as for any other bean.
+ */
+public class UserEntityListener {
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Runs {@code action} without publishing a {@link UserChangedEvent} per
+     * row; the caller publishes one bulk change instead. Entities must be
+     * flushed before it returns, as the callbacks fire on flush.
+     */
+    public static <T> T withoutEvents(Supplier<T> action) {
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            SUPPRESSED.remove();
+        }
+    }
+
+    @PostPersist
+    public void afterCreate(User user) {
+        publish(user, UserChangedEvent.Type.CREATED);
+    }
+
+    @PostUpdate
+    public void afterUpdate(User user) {
+        publish(user, UserChangedEvent.Type.UPDATED);
+    }
+
+    @PostRemove
+    public void afterDelete(User user) {
+        publish(user, UserChangedEvent.Type.DELETED);
+    }
+
+    private void publish(User user, UserChangedEvent.Type type) {
+        if (SUPPRESSED.get() != null) {
+            return;
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername(), type));
+    }
+}
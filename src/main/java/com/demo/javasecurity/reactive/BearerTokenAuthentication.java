@@ -0,0 +1,34 @@
+package com.demo.javasecurity.reactive;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+import java.util.List;
+
+/**
+ * Unauthenticated request carrying a raw bearer token, handed to
+ * {@link JwtReactiveAuthenticationManager}.
+ */
+public class BearerTokenAuthentication extends AbstractAuthenticationToken {
+
+    private final String token;
+
+    public BearerTokenAuthentication(String token) {
+        super(List.of());
+        this.token = token;
+        setAuthenticated(false);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return token;
+    }
+}
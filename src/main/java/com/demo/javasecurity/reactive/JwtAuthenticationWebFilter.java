@@ -0,0 +1,62 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.security.RejectionReason;
+import com.demo.javasecurity.security.UnauthorizedResponseWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@code AuthTokenFilter}: a missing or rejected token
+ * leaves the exchange unauthenticated, and the authorization rules decide
+ * whether that is allowed.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationWebFilter.class);
+
+    private final ReactiveAuthenticationManager authenticationManager;
+
+    public JwtAuthenticationWebFilter(ReactiveAuthenticationManager authenticationManager) {
+        this.authenticationManager = authenticationManager;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = parseJwt(exchange);
+        if (jwt == null) {
+            return chain.filter(exchange);
+        }
+        return authenticationManager.authenticate(new BearerTokenAuthentication(jwt))
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    logger.debug("Cannot set user authentication: {}", e.getMessage());
+                    exchange.getAttributes().put(UnauthorizedResponseWriter.REASON_ATTRIBUTE, RejectionReason.of(e));
+                    return Mono.just(Optional.empty());
+                })
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> authentication
+                        .map(auth -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    private String parseJwt(ServerWebExchange exchange) {
+        String headerAuth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+
+        return null;
+    }
+}
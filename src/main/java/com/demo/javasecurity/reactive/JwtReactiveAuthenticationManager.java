@@ -0,0 +1,80 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.security.InvalidBearerTokenException;
+import com.demo.javasecurity.security.RejectionReason;
+import com.demo.javasecurity.security.TokenAccountStatusChecker;
+import com.demo.javasecurity.security.TokenRevocationList;
+import com.demo.javasecurity.security.VerifiedTokenCache;
+import com.demo.javasecurity.service.ActivityMetrics;
+import com.demo.javasecurity.util.JwtUtil;
+import com.demo.javasecurity.util.JwtVerificationResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies bearer tokens with the same {@link JwtUtil} claims and caches as
+ * the servlet {@code AuthTokenFilter}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    @Autowired
+    private JwtUtil jwtUtils;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private ReactiveUserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    private final TokenAccountStatusChecker accountStatusChecker = new TokenAccountStatusChecker();
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthentication bearer)) {
+            return Mono.empty();
+        }
+        JwtVerificationResult result = verifiedTokenCache.verify(bearer.getToken());
+        if (!result.isValid()) {
+            return Mono.error(new InvalidBearerTokenException(result.getFailureReason()));
+        }
+        if (tokenRevocationList.isRevoked(result.getTokenId())) {
+            return Mono.error(new InvalidBearerTokenException(RejectionReason.REVOKED_TOKEN, "JWT token has been revoked"));
+        }
+        return resolvePrincipal(result)
+                .doOnNext(userDetails -> activityMetrics.recordAuthenticated(userDetails.getUsername()))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails, null,
+                                                                            userDetails.getAuthorities()));
+    }
+
+    private Mono<UserDetails> resolvePrincipal(JwtVerificationResult result) {
+        if (statelessPrincipal) {
+            User user = jwtUtils.principalFromClaims(result);
+            if (user != null) {
+                return Mono.just(user);
+            }
+        }
+        return userDetailsService.findByUsername(result.getSubject())
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User Not Found: " + result.getSubject())))
+                .doOnNext(accountStatusChecker::check);
+    }
+}
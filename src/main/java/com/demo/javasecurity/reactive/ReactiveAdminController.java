@@ -0,0 +1,165 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.dto.AdminResponse;
+import com.demo.javasecurity.dto.BatchIssueRequest;
+import com.demo.javasecurity.dto.UserSummary;
+import com.demo.javasecurity.model.AuditEvent;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.service.AdminOperations;
+import com.demo.javasecurity.service.UserAdminService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/admin")
+public class ReactiveAdminController {
+
+    private static final int IMPORT_PIPE_SIZE = 1 << 16;
+
+    @Autowired
+    private AdminOperations adminOperations;
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @GetMapping("/dashboard")
+    public Mono<ResponseEntity<AdminResponse.Dashboard>> getAdminDashboard(@AuthenticationPrincipal User user) {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(adminOperations.dashboard(user)));
+    }
+
+    @GetMapping("/users")
+    public Mono<ResponseEntity<AdminResponse.UsersPage>> getAllUsers(@RequestParam(defaultValue = "0") long after,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(adminOperations.usersPage(after, limit)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Every user as one JSON object per line. A JPA cursor is bound to the thread
+    // that opened it, so this walks keyset pages instead, each fetched on demand.
+    @GetMapping(value = "/users/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserSummary> streamAllUsers(@RequestParam(defaultValue = "0") long after) {
+        int pageSize = userAdminService.getMaxPageSize();
+        return usersAfter(after, pageSize)
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : usersAfter(page.get(page.size() - 1).getId(), pageSize))
+                .flatMapIterable(page -> page);
+    }
+
+    // Streams a CSV or NDJSON upload into the users table, see UserImportService.
+    // The import reads a blocking InputStream, so the body is piped to it from bounded-elastic.
+    @PostMapping("/users:import")
+    public Mono<ResponseEntity<AdminResponse>> importUsers(@AuthenticationPrincipal User user,
+                                                           @RequestParam(defaultValue = "0") long skip,
+                                                           ServerHttpRequest request) {
+        MediaType contentType = request.getHeaders().getContentType();
+        return Mono.fromCallable(() -> {
+                    PipedOutputStream sink = new PipedOutputStream();
+                    try (PipedInputStream source = new PipedInputStream(sink, IMPORT_PIPE_SIZE)) {
+                        Disposable upload = DataBufferUtils.write(request.getBody()
+                                                .publishOn(Schedulers.boundedElastic()), sink)
+                                .doFinally(signal -> closeQuietly(sink))
+                                .subscribe(DataBufferUtils.releaseConsumer());
+                        try {
+                            return adminOperations.importUsers(source,
+                                                               contentType != null ? contentType.toString() : null,
+                                                               skip, user);
+                        } finally {
+                            upload.dispose();
+                        }
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/system-config")
+    public Mono<ResponseEntity<AdminResponse.SystemConfig>> updateSystemConfig(@AuthenticationPrincipal User user,
+                                                                               @RequestBody Map<String, Object> config) {
+        // The audit log only enqueues, so this stays on the event loop
+        return Mono.fromSupplier(() -> ResponseEntity.ok(adminOperations.updateSystemConfig(config, user)));
+    }
+
+    @DeleteMapping("/user/{userId}")
+    public Mono<ResponseEntity<AdminResponse>> deleteUser(@AuthenticationPrincipal User user,
+                                                          @PathVariable Long userId) {
+        return Mono.fromCallable(() -> adminOperations.deleteUser(userId, user))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/user/{userId}/disable")
+    public Mono<ResponseEntity<AdminResponse>> disableUser(@AuthenticationPrincipal User user,
+                                                           @PathVariable Long userId) {
+        return Mono.fromCallable(() -> adminOperations.setEnabled(userId, false, user))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/user/{userId}/enable")
+    public Mono<ResponseEntity<AdminResponse>> enableUser(@AuthenticationPrincipal User user,
+                                                          @PathVariable Long userId) {
+        return Mono.fromCallable(() -> adminOperations.setEnabled(userId, true, user))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/tokens/revoke")
+    public Mono<ResponseEntity<AdminResponse>> revokeToken(@AuthenticationPrincipal User user,
+                                                           @RequestBody Map<String, Object> request) {
+        // Revocations are persisted, so keep the JPA write off the event loop
+        return Mono.fromCallable(() -> adminOperations.revokeToken(request, user))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/tokens/revocations")
+    public Mono<ResponseEntity<AdminResponse.RevocationStats>> getRevocationStats() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(adminOperations.revocationStats()));
+    }
+
+    // Recent audit events, newest first; ?type= and ?user= narrow the result
+    @GetMapping("/audit")
+    public Mono<ResponseEntity<AdminResponse.AuditEvents>> getAuditEvents(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) AuditEvent.Type type,
+            @RequestParam(required = false) String user) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(adminOperations.auditEvents(limit, type, user)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/tokens:batchIssue")
+    public Mono<ResponseEntity<AdminResponse>> batchIssueTokens(@AuthenticationPrincipal User user,
+                                                                @Valid @RequestBody BatchIssueRequest request) {
+        // User lookup is JPA and signing fans out across cores; both block
+        return Mono.fromCallable(() -> adminOperations.batchIssueTokens(request.getUsernames(), user))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // The reading side has gone away; nothing left to release
+        }
+    }
+
+    private Mono<List<UserSummary>> usersAfter(long afterId, int pageSize) {
+        return Mono.fromCallable(() -> userAdminService.listUsers(afterId, pageSize))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
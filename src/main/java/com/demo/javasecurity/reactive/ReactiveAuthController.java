@@ -0,0 +1,197 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.dto.BatchVerifyRequest;
+import com.demo.javasecurity.dto.JwtResponse;
+import com.demo.javasecurity.dto.LoginRequest;
+import com.demo.javasecurity.dto.RefreshTokenRequest;
+import com.demo.javasecurity.dto.TokenCheckResult;
+import com.demo.javasecurity.model.AuditEvent;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.security.LoginExecutor;
+import com.demo.javasecurity.security.LoginRateLimiter;
+import com.demo.javasecurity.security.RejectionReason;
+import com.demo.javasecurity.service.AuditLog;
+import com.demo.javasecurity.service.LoginAttemptService;
+import com.demo.javasecurity.service.RefreshTokenService;
+import com.demo.javasecurity.service.TokenBatchService;
+import com.demo.javasecurity.util.JwtUtil;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/auth")
+public class ReactiveAuthController {
+
+    private static final String SIGNIN_PATH = "/api/auth/signin";
+    private static final String REFRESH_PATH = "/api/auth/refresh";
+    private static final String BATCH_VERIFY_PATH = "/api/auth/tokens:batchVerify";
+
+    @Autowired
+    @Qualifier("signinAuthenticationManager")
+    AuthenticationManager authenticationManager;
+
+    @Autowired
+    JwtUtil jwtUtils;
+
+    @Autowired
+    LoginExecutor loginExecutor;
+
+    @Autowired
+    LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    LoginAttemptService loginAttemptService;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    TokenBatchService tokenBatchService;
+
+    @Autowired
+    AuditLog auditLog;
+
+    @Value("${security.login.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @PostMapping("/signin")
+    public Mono<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                    ServerHttpRequest request) {
+        String clientIp = clientIp(request);
+        Duration retryAfter = loginRateLimiter.tryAcquire(loginRequest.getUsername(), clientIp);
+        if (!retryAfter.isZero()) {
+            auditLog.record(AuditEvent.Type.SIGNIN_THROTTLED, loginRequest.getUsername(), clientIp, null);
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(retryAfter)))
+                    .body(errorBody(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts, please retry later",
+                                    SIGNIN_PATH)));
+        }
+        CompletableFuture<ResponseEntity<?>> signin;
+        try {
+            signin = loginExecutor.submit(() -> signin(loginRequest, clientIp));
+        } catch (RejectedExecutionException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(errorBody(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in requests, please retry later",
+                                    SIGNIN_PATH)));
+        }
+        return Mono.fromFuture(signin)
+                .onErrorResume(AuthenticationException.class, e -> Mono.just(ResponseEntity
+                        .status(HttpStatus.UNAUTHORIZED)
+                        .body(errorBody(HttpStatus.UNAUTHORIZED, e.getMessage(), SIGNIN_PATH))));
+    }
+
+    // Exchanges a refresh token for a new access token and a rotated refresh token
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<?>> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> rotate(refreshRequest.getRefreshToken()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(AuthenticationException.class, e -> Mono.just(ResponseEntity
+                        .status(HttpStatus.UNAUTHORIZED)
+                        .body(errorBody(HttpStatus.UNAUTHORIZED, e.getMessage(), REFRESH_PATH))));
+    }
+
+    // Verifies many tokens in one call; results are returned in request order.
+    // Unlike the rest of /api/auth this requires an authenticated caller.
+    @PostMapping("/tokens:batchVerify")
+    public Mono<ResponseEntity<Map<String, Object>>> batchVerify(@Valid @RequestBody BatchVerifyRequest batchRequest) {
+        List<String> tokens = batchRequest.getTokens();
+        if (tokens.size() > tokenBatchService.getMaxBatchSize()) {
+            return Mono.just(ResponseEntity.badRequest().body(errorBody(HttpStatus.BAD_REQUEST,
+                    "At most " + tokenBatchService.getMaxBatchSize() + " tokens per batch", BATCH_VERIFY_PATH)));
+        }
+        // The batch blocks while it fans out across cores, so keep it off the event loop
+        return Mono.fromCallable(() -> {
+                    List<TokenCheckResult> results = tokenBatchService.verify(tokens);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("results", results);
+                    response.put("count", results.size());
+                    response.put("valid", results.stream().filter(TokenCheckResult::isValid).count());
+                    return ResponseEntity.ok(response);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/test")
+    public Mono<String> testEndpoint() {
+        return Mono.just("Authentication endpoint is working!");
+    }
+
+    private ResponseEntity<?> signin(LoginRequest loginRequest, String clientIp) {
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        } catch (AuthenticationException e) {
+            auditLog.record(AuditEvent.Type.SIGNIN_FAILURE, loginRequest.getUsername(), clientIp,
+                            RejectionReason.of(e).name());
+            if (e instanceof BadCredentialsException) {
+                loginAttemptService.loginFailed(loginRequest.getUsername());
+            }
+            throw e;
+        }
+
+        User userPrincipal = (User) authentication.getPrincipal();
+        loginAttemptService.loginSucceeded(userPrincipal);
+        auditLog.record(AuditEvent.Type.SIGNIN_SUCCESS, userPrincipal.getUsername(), clientIp, null);
+        String refreshToken = refreshTokenService.issue(userPrincipal);
+        String jwt = jwtUtils.generateJwtToken(userPrincipal);
+
+        return ResponseEntity.ok(tokenResponse(jwt, userPrincipal, refreshToken));
+    }
+
+    private ResponseEntity<?> rotate(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.getUser();
+        String jwt = jwtUtils.generateJwtToken(user);
+        return ResponseEntity.ok(tokenResponse(jwt, user, rotation.getRefreshToken()));
+    }
+
+    private JwtResponse tokenResponse(String jwt, User user, String refreshToken) {
+        return new JwtResponse(jwt, user.getUsername(), user.getRole().name(), refreshToken,
+                               jwtUtils.getJwtExpirationMs() / 1000);
+    }
+
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : null;
+    }
+
+    private static Map<String, Object> errorBody(HttpStatus status, String message, String path) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", path);
+        return body;
+    }
+}
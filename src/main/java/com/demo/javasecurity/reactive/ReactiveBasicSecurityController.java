@@ -0,0 +1,45 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.dto.UserInfoResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/basic")
+public class ReactiveBasicSecurityController {
+
+    @GetMapping("/user-info")
+    public Mono<ResponseEntity<UserInfoResponse>> getUserInfo(Authentication authentication) {
+        return Mono.just(ResponseEntity.ok(UserInfoResponse.basic(authentication.getName(),
+                                                                  authentication.getAuthorities())));
+    }
+
+    @GetMapping("/protected")
+    public Mono<ResponseEntity<Map<String, Object>>> getProtectedData() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "This endpoint is protected by Basic Authentication");
+        response.put("data", "Secret data accessible to authenticated users");
+        response.put("security", "HTTP_BASIC");
+
+        return Mono.just(ResponseEntity.ok(response));
+    }
+
+    @PostMapping("/action")
+    public Mono<ResponseEntity<Map<String, Object>>> performAction(Authentication authentication,
+                                                                   @RequestBody Map<String, Object> request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Action performed successfully");
+        response.put("performedBy", authentication.getName());
+        response.put("action", request.get("action"));
+        response.put("security", "HTTP_BASIC");
+
+        return Mono.just(ResponseEntity.ok(response));
+    }
+}
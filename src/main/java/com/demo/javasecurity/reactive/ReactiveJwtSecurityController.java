@@ -0,0 +1,71 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.dto.DashboardResponse;
+import com.demo.javasecurity.dto.ProfileResponse;
+import com.demo.javasecurity.dto.SecureActionResponse;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.service.ActivityMetrics;
+import com.demo.javasecurity.util.JsonBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/jwt")
+public class ReactiveJwtSecurityController {
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JsonBody dataBody;
+
+    @PostConstruct
+    public void init() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("message", "This is JWT-protected sensitive data");
+        data.put("data", Map.of(
+            "customerCount", 1542,
+            "revenue", "$125,000",
+            "transactions", 3421
+        ));
+        data.put("security", "JWT_TOKEN");
+        dataBody = JsonBody.of(objectMapper, data);
+    }
+
+    @GetMapping("/profile")
+    public Mono<ResponseEntity<ProfileResponse>> getUserProfile(@AuthenticationPrincipal User user) {
+        return Mono.just(ResponseEntity.ok(ProfileResponse.jwt(user.getUsername(), user.getRole(),
+                                                               user.getAuthorities())));
+    }
+
+    @GetMapping("/dashboard")
+    public Mono<ResponseEntity<DashboardResponse>> getDashboard(@AuthenticationPrincipal User user) {
+        return Mono.just(ResponseEntity.ok(DashboardResponse.jwt(user.getUsername(), user.getRole(),
+                                                                 activityMetrics.totalUsers(),
+                                                                 activityMetrics.activeUsers())));
+    }
+
+    @PostMapping("/secure-action")
+    public Mono<ResponseEntity<SecureActionResponse>> performSecureAction(@AuthenticationPrincipal User user,
+                                                                          @RequestBody Map<String, Object> request) {
+        return Mono.just(ResponseEntity.ok(SecureActionResponse.jwt(user.getUsername(), user.getRole(),
+                                                                    request.get("action"))));
+    }
+
+    @GetMapping("/data")
+    public Mono<ResponseEntity<byte[]>> getSecureData() {
+        return Mono.just(dataBody.toResponse());
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.dto.MethodSecurityResponse.Access;
+import com.demo.javasecurity.dto.MethodSecurityResponse.AdminAction;
+import com.demo.javasecurity.dto.MethodSecurityResponse.AdminData;
+import com.demo.javasecurity.dto.MethodSecurityResponse.UserCheck;
+import com.demo.javasecurity.dto.MethodSecurityResponse.UserData;
+import com.demo.javasecurity.model.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Same rules as {@code MethodSecurityController}, enforced by reactive method
+ * security, which requires the annotated methods to return a Publisher.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/method")
+public class ReactiveMethodSecurityController {
+
+    @GetMapping("/all")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public Mono<ResponseEntity<Access>> getAllowedForAll(@AuthenticationPrincipal User user) {
+        return Mono.just(ResponseEntity.ok(Access.allAuthenticated(user.getUsername(), user.getRole())));
+    }
+
+    @GetMapping("/admin-only")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<AdminData>> getAdminOnlyData(@AuthenticationPrincipal User user) {
+        return Mono.just(ResponseEntity.ok(AdminData.of(user.getUsername(), user.getRole())));
+    }
+
+    @GetMapping("/user-only")
+    @PreAuthorize("hasRole('USER') and !hasRole('ADMIN')")
+    public Mono<ResponseEntity<UserData>> getUserOnlyData(@AuthenticationPrincipal User user) {
+        return Mono.just(ResponseEntity.ok(UserData.of(user.getUsername(), user.getRole())));
+    }
+
+    @PostMapping("/admin-action")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<AdminAction>> performAdminAction(@AuthenticationPrincipal User user,
+                                                                @RequestBody Map<String, Object> request) {
+        return Mono.just(ResponseEntity.ok(AdminAction.of(user.getUsername(), request.get("action"))));
+    }
+
+    @GetMapping("/check-username/{username}")
+    @PreAuthorize("#username == authentication.name or hasRole('ADMIN')")
+    public Mono<ResponseEntity<UserCheck>> checkUserData(@PathVariable String username,
+                                                         @AuthenticationPrincipal User user) {
+        return Mono.just(ResponseEntity.ok(UserCheck.of(username, user.getUsername(), user.getRole())));
+    }
+}
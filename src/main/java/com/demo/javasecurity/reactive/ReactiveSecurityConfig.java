@@ -0,0 +1,119 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.security.RejectionReason;
+import com.demo.javasecurity.security.UnauthorizedResponseWriter;
+import com.demo.javasecurity.service.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * WebFlux/Netty variant of {@code WebSecurityConfig}, active when the
+ * application runs as a reactive web application (the "reactive" profile).
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtReactiveAuthenticationManager jwtAuthenticationManager;
+
+    @Autowired
+    private UnauthorizedResponseWriter unauthorizedResponseWriter;
+
+    /**
+     * Blocking username/password authentication used by the sign-in endpoint.
+     * It only ever runs on the bounded login pool, never on an event-loop thread.
+     */
+    @Bean
+    public AuthenticationManager signinAuthenticationManager() {
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
+        return new ProviderManager(authProvider);
+    }
+
+    @Bean
+    public SecurityWebFilterChain springSecurityWebFilterChain(ServerHttpSecurity http) {
+        http.cors(cors -> cors.configurationSource(exchange -> {
+                    CorsConfiguration corsConfig = new CorsConfiguration();
+                    corsConfig.setAllowedOriginPatterns(List.of("*"));
+                    corsConfig.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                    corsConfig.setAllowedHeaders(List.of("*"));
+                    corsConfig.setAllowCredentials(true);
+                    return corsConfig;
+                }))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler()))
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtAuthenticationManager),
+                             SecurityWebFiltersOrder.AUTHENTICATION)
+                .authorizeExchange(authz -> authz
+                        .pathMatchers("/api/auth/tokens:batchVerify").authenticated()
+                        .pathMatchers("/api/auth/**").permitAll()
+                        .pathMatchers("/api/public/**").permitAll()
+                        .pathMatchers("/api/basic/**").authenticated()
+                        .pathMatchers("/api/jwt/**").authenticated()
+                        .pathMatchers("/api/method/**").authenticated()
+                        .pathMatchers("/api/admin/**").hasRole("ADMIN")
+                        .pathMatchers("/actuator/health/**").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyExchange().authenticated()
+                );
+
+        return http.build();
+    }
+
+    private ServerAuthenticationEntryPoint unauthorizedHandler() {
+        // ExceptionTranslationWebFilter assembles the entry point Mono even when it ends up
+        // using the access denied handler, so nothing may touch the response before subscription
+        return (exchange, authException) -> Mono.defer(() -> {
+            byte[] body = unauthorizedResponseWriter.reject(
+                    exchange.<RejectionReason>getAttribute(UnauthorizedResponseWriter.REASON_ATTRIBUTE), authException,
+                    exchange.getRequest().getPath().value(), clientIp(exchange));
+
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(body.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        });
+    }
+
+    private static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.demo.javasecurity.reactive;
+
+import com.demo.javasecurity.service.UserDetailsCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@code UserDetailsServiceImpl}. Cache hits are served
+ * on the calling thread; misses run the blocking JPA lookup on the
+ * bounded-elastic scheduler so event-loop threads never block.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserDetailsServiceImpl implements ReactiveUserDetailsService {
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        UserDetails cached = userDetailsCache.getIfPresent(username);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.fromCallable(() -> userDetailsCache.loadUserByUsername(username))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+    }
+}
@@ -1,13 +1,79 @@
 package com.demo.javasecurity.repository;
 
 import com.demo.javasecurity.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // Query cache region of the lookups by username, evicted on its own when another instance changes a user
+    String QUERY_REGION = "user-queries";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_REGION)
+    })
     Optional<User> findByUsername(String username);
+
+    // Principal for bearer-token requests: only the columns authorization reads, never the password hash
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_REGION),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.demo.javasecurity.model.User(u.id, u.username, u.role, u.enabled, u.lockedUntil) "
+            + "from User u where u.username = :username")
+    Optional<User> findPrincipalByUsername(@Param("username") String username);
+
+    // Lockout counters are bumped in SQL so concurrent failed sign-ins serialize on the row lock
+    @Modifying
+    @Transactional
+    @Query("update User u set u.failedAttempts = u.failedAttempts + 1 where u.username = :username")
+    int incrementFailedAttempts(@Param("username") String username);
+
+    @Query("select u.failedAttempts from User u where u.username = :username")
+    Optional<Integer> findFailedAttemptsByUsername(@Param("username") String username);
+
+    @Query("select u.id from User u where u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    // Bulk updates bypass UserEntityListener: callers publish the UserChangedEvent themselves
+    @Modifying
+    @Transactional
+    @Query("update User u set u.lockedUntil = :lockedUntil where u.username = :username")
+    int lockUntil(@Param("username") String username, @Param("lockedUntil") Instant lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.failedAttempts = 0, u.lockedUntil = null where u.id = :id")
+    int resetFailedAttempts(@Param("id") Long id);
+
     boolean existsByUsername(String username);
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    // Keyset page: seeks past the last id seen instead of counting rows with OFFSET
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Cursor over every user after the given id; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u where u.id > :afterId order by u.id")
+    Stream<User> streamByIdGreaterThan(@Param("afterId") Long afterId);
 }
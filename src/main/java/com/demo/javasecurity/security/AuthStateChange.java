@@ -0,0 +1,79 @@
+package com.demo.javasecurity.security;
+
+/**
+ * A change to auth state made on one instance that the other instances must
+ * apply to their local copies, sent through {@link SharedAuthState}.
+ */
+public class AuthStateChange {
+
+    public enum Type {
+        TOKEN_REVOKED,
+        USER_CREATED,
+        USER_UPDATED,
+        USER_DELETED
+    }
+
+    private final Type type;
+    // The jti for revocations, the username for user changes (null = all users)
+    private final String key;
+    // Epoch millis until which a revocation holds; 0 for user changes
+    private final long expiresAt;
+    // Id of the changed user; null for revocations and when unknown
+    private final Long userId;
+
+    public AuthStateChange(Type type, String key, long expiresAt, Long userId) {
+        this.type = type;
+        this.key = key;
+        this.expiresAt = expiresAt;
+        this.userId = userId;
+    }
+
+    public static AuthStateChange tokenRevoked(String tokenId, long expiresAt) {
+        return new AuthStateChange(Type.TOKEN_REVOKED, tokenId, expiresAt, null);
+    }
+
+    public static AuthStateChange userChanged(Type type, Long userId, String username) {
+        return new AuthStateChange(type, username, 0, userId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * One line of text, {@code <type> <expiresAt> <userId> <key>}; the key goes
+     * last as it may contain spaces. Null values are sent as 0 and empty.
+     */
+    public String encode() {
+        return type.name() + ' ' + expiresAt + ' ' + (userId != null ? userId : 0) + ' ' + (key != null ? key : "");
+    }
+
+    /**
+     * Parses {@link #encode()}'s output, or returns null if the text is malformed.
+     */
+    public static AuthStateChange decode(String text) {
+        String[] parts = text.split(" ", 4);
+        if (parts.length < 4) {
+            return null;
+        }
+        try {
+            long userId = Long.parseLong(parts[2]);
+            return new AuthStateChange(Type.valueOf(parts[0]), parts[3].isEmpty() ? null : parts[3],
+                                       Long.parseLong(parts[1]), userId != 0 ? userId : null);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.demo.javasecurity.security;
 
-import com.demo.javasecurity.service.UserDetailsServiceImpl;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.service.ActivityMetrics;
+import com.demo.javasecurity.service.UserDetailsCache;
 import com.demo.javasecurity.util.JwtUtil;
+import com.demo.javasecurity.util.JwtVerificationResult;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,17 +12,22 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
-@Component
+/**
+ * Authenticates requests carrying a bearer token. Created by
+ * {@code WebSecurityConfig} and run inside the security filter chain only.
+ * Revocation and principal lookups are answered from in-JVM near-caches that
+ * {@link SharedAuthState} keeps current across instances.
+ */
 public class AuthTokenFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
@@ -28,31 +36,67 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    private final TokenAccountStatusChecker accountStatusChecker = new TokenAccountStatusChecker();
+
+    // When enabled, the principal is rebuilt from the uid/role claims instead of
+    // being loaded from the database. Role changes and disabled accounts only take
+    // effect once the user's existing tokens expire.
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            JwtVerificationResult result = jwt != null ? verifiedTokenCache.verify(jwt) : null;
+            if (result != null && result.isValid() && tokenRevocationList.isRevoked(result.getTokenId())) {
+                request.setAttribute(UnauthorizedResponseWriter.REASON_ATTRIBUTE, RejectionReason.REVOKED_TOKEN);
+            } else if (result != null && result.isValid()) {
+                UserDetails userDetails = resolvePrincipal(result);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null,
                                                               userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                activityMetrics.recordAuthenticated(userDetails.getUsername());
+            } else if (result != null) {
+                request.setAttribute(UnauthorizedResponseWriter.REASON_ATTRIBUTE,
+                                     RejectionReason.of(result.getFailureReason()));
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e.getMessage());
+            logger.debug("Cannot set user authentication: {}", e.getMessage());
+            request.setAttribute(UnauthorizedResponseWriter.REASON_ATTRIBUTE, RejectionReason.of(e));
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(JwtVerificationResult result) {
+        if (statelessPrincipal) {
+            User user = jwtUtils.principalFromClaims(result);
+            if (user != null) {
+                return user;
+            }
+        }
+        // Default mode, and tokens issued without the uid/role claims: cached lookup
+        UserDetails userDetails = userDetailsCache.loadUserByUsername(result.getSubject());
+        accountStatusChecker.check(userDetails);
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,79 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.security.PreAuthorizeExpressionCompiler.CompiledExpression;
+import com.demo.javasecurity.security.PreAuthorizeExpressionCompiler.UnsupportedExpressionException;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * {@code @PreAuthorize} manager that compiles each method's expression once
+ * into a Java predicate (see {@link PreAuthorizeExpressionCompiler}) and
+ * evaluates role checks as bit tests. Expressions outside the supported
+ * subset are delegated to Spring's SpEL-based {@link PreAuthorizeAuthorizationManager},
+ * so every expression keeps its usual meaning.
+ */
+public final class CompiledPreAuthorizeManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledPreAuthorizeManager.class);
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // Methods without @PreAuthorize are cached as this marker
+    private static final AuthorizationManager<MethodInvocation> NO_RULE = (authentication, invocation) -> null;
+
+    private final PreAuthorizeAuthorizationManager fallback;
+
+    private final Map<MethodClassKey, AuthorizationManager<MethodInvocation>> managers = new ConcurrentHashMap<>();
+
+    public CompiledPreAuthorizeManager(PreAuthorizeAuthorizationManager fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        AuthorizationManager<MethodInvocation> manager = managers.computeIfAbsent(
+                new MethodClassKey(invocation.getMethod(), targetClass),
+                key -> compile(invocation.getMethod(), targetClass));
+        return manager.check(authentication, invocation);
+    }
+
+    private AuthorizationManager<MethodInvocation> compile(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return NO_RULE;
+        }
+        try {
+            CompiledExpression expression = PreAuthorizeExpressionCompiler.compile(preAuthorize.value(), specificMethod);
+            return (authentication, invocation) -> {
+                Authentication auth = authentication.get();
+                boolean granted = expression.evaluate(RoleSet.of(auth), auth, invocation.getArguments());
+                return granted ? GRANTED : DENIED;
+            };
+        } catch (UnsupportedExpressionException e) {
+            logger.debug("Using SpEL for @PreAuthorize(\"{}\") on {}: {}", preAuthorize.value(), specificMethod, e.getMessage());
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.javasecurity.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link SharedAuthState} for a single instance. Changes are delivered
+ * synchronously to every other application context in the same JVM, which
+ * makes it an in-process stand-in for a cluster when several contexts are
+ * started side by side.
+ */
+@Component
+@ConditionalOnProperty(name = "security.shared-state.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySharedAuthState implements SharedAuthState {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySharedAuthState.class);
+
+    private static final List<InMemorySharedAuthState> INSTANCES = new CopyOnWriteArrayList<>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        INSTANCES.add(this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        INSTANCES.remove(this);
+    }
+
+    @Override
+    public void publish(AuthStateChange change) {
+        published.increment();
+        for (InMemorySharedAuthState instance : INSTANCES) {
+            if (instance != this) {
+                instance.deliver(change);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", "memory");
+        stats.put("peers", INSTANCES.size() - 1);
+        stats.put("published", published.sum());
+        stats.put("received", received.sum());
+        return stats;
+    }
+
+    private void deliver(AuthStateChange change) {
+        received.increment();
+        for (Listener listener : listeners) {
+            try {
+                listener.onChange(change);
+            } catch (RuntimeException e) {
+                logger.error("Cannot apply {} for {}: {}", change.getType(), change.getKey(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.util.JwtVerificationResult.FailureReason;
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * A bearer token that was rejected, with the reason it was rejected.
+ */
+public class InvalidBearerTokenException extends BadCredentialsException {
+
+    private final RejectionReason rejectionReason;
+
+    public InvalidBearerTokenException(FailureReason failureReason) {
+        this(RejectionReason.of(failureReason), "Invalid JWT token: " + failureReason);
+    }
+
+    public InvalidBearerTokenException(RejectionReason rejectionReason, String message) {
+        super(message);
+        this.rejectionReason = rejectionReason;
+    }
+
+    public RejectionReason getRejectionReason() {
+        return rejectionReason;
+    }
+}
@@ -0,0 +1,14 @@
+package com.demo.javasecurity.security;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * A refresh token that is unknown, expired, already used or belongs to a
+ * user who may no longer sign in.
+ */
+public class InvalidRefreshTokenException extends BadCredentialsException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.javasecurity.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded pool for password verification. Keeps BCrypt off the
+ * servlet threads so a login burst cannot starve the rest of the API; once
+ * the queue is full, submissions are rejected immediately.
+ */
+@Component
+public class LoginExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginExecutor.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.login.pool-size:0}")
+    private int poolSize;
+
+    @Value("${security.login.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer queueWaitTimer;
+
+    private Timer hashTimer;
+
+    @PostConstruct
+    void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new LoginThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        queueWaitTimer = Timer.builder("auth.signin.queue.wait")
+                .description("Time a sign-in request waits for a password hashing thread")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("auth.signin.hash")
+                .description("Time spent authenticating a sign-in request, dominated by password hashing")
+                .register(meterRegistry);
+        Gauge.builder("auth.signin.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.signin.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        logger.info("Login executor started with {} threads and queue capacity {}", threads, queueCapacity);
+    }
+
+    /**
+     * Runs the task on the login pool.
+     *
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            long startedAt = System.nanoTime();
+            queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                return task.get();
+            } finally {
+                hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }, executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class LoginThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "login-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.demo.javasecurity.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sign-in throttle applied before a request reaches the login pool, so a
+ * rejected attempt never costs a password hash. Each username and each client
+ * IP has its own token bucket, implemented as GCRA: the bucket is a single
+ * {@link AtomicLong} holding the theoretical arrival time, updated with CAS.
+ * Buckets live in a bounded Caffeine cache and expire once they have been
+ * idle for a full period, at which point they would be full again anyway.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.login.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Attempts allowed per period, which is also the burst size
+    @Value("${security.login.rate-limit.username-limit:10}")
+    private int usernameLimit;
+
+    @Value("${security.login.rate-limit.ip-limit:50}")
+    private int ipLimit;
+
+    @Value("${security.login.rate-limit.period:1m}")
+    private Duration period;
+
+    @Value("${security.login.rate-limit.maximum-keys:100000}")
+    private long maximumKeys;
+
+    private Bucket usernameBuckets;
+
+    private Bucket ipBuckets;
+
+    @PostConstruct
+    void init() {
+        usernameBuckets = new Bucket("username", usernameLimit);
+        ipBuckets = new Bucket("ip", ipLimit);
+        logger.info("Sign-in rate limit enabled={}, username={}/{}, ip={}/{}",
+                    enabled, usernameLimit, period, ipLimit, period);
+    }
+
+    /**
+     * Takes one token from both the username and the client IP bucket.
+     *
+     * @return {@link Duration#ZERO} if the attempt may proceed, otherwise how
+     * long the caller should wait before retrying
+     */
+    public Duration tryAcquire(String username, String clientIp) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        long wait = ipBuckets.tryAcquire(clientIp, now);
+        if (wait == 0) {
+            wait = usernameBuckets.tryAcquire(username, now);
+        }
+        return wait == 0 ? Duration.ZERO : Duration.ofNanos(wait);
+    }
+
+    private final class Bucket {
+
+        private final Cache<String, AtomicLong> arrivals;
+        private final long periodNanos;
+        private final long intervalNanos;
+        private final Counter throttled;
+
+        Bucket(String key, int limit) {
+            this.periodNanos = period.toNanos();
+            this.intervalNanos = periodNanos / Math.max(limit, 1);
+            this.arrivals = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(period)
+                    .build();
+            this.throttled = Counter.builder("auth.signin.throttled")
+                    .description("Sign-in attempts rejected by the rate limiter")
+                    .tag("key", key)
+                    .register(meterRegistry);
+        }
+
+        // Returns 0 when a token was taken, otherwise the nanoseconds until one is available
+        long tryAcquire(String key, long now) {
+            AtomicLong arrival = arrivals.get(key == null ? "" : key, k -> new AtomicLong(now));
+            while (true) {
+                long current = arrival.get();
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                long wait = next - now - periodNanos;
+                if (wait > 0) {
+                    throttled.increment();
+                    return wait;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
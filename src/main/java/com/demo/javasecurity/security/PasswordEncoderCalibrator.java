@@ -0,0 +1,60 @@
+package com.demo.javasecurity.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Picks hashing cost parameters for the current machine by timing a few
+ * hashes at a cheap setting and extrapolating to a target duration.
+ * Only used for self-describing formats (BCrypt, Argon2), where the cost is
+ * stored in the hash and changing it never breaks existing passwords.
+ */
+public final class PasswordEncoderCalibrator {
+
+    public static final int MIN_BCRYPT_STRENGTH = 4;
+    public static final int MAX_BCRYPT_STRENGTH = 31;
+
+    private static final int BCRYPT_PROBE_STRENGTH = 8;
+    private static final int SAMPLES = 5;
+    private static final String PROBE_PASSWORD = "calibration-probe";
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    /**
+     * BCrypt cost doubles with every strength step, so the strength is the
+     * probe strength plus log2 of the ratio between target and probe time.
+     */
+    public static int calibrateBCryptStrength(long targetMillis) {
+        double probeMillis = medianMillis(new BCryptPasswordEncoder(BCRYPT_PROBE_STRENGTH));
+        int strength = BCRYPT_PROBE_STRENGTH
+                + (int) Math.round(Math.log(targetMillis / probeMillis) / Math.log(2));
+        return Math.max(MIN_BCRYPT_STRENGTH, Math.min(MAX_BCRYPT_STRENGTH, strength));
+    }
+
+    /**
+     * Argon2 time grows linearly with the iteration count for a fixed memory cost.
+     */
+    public static int calibrateArgon2Iterations(long targetMillis, int saltLength, int hashLength,
+                                                int parallelism, int memoryKib) {
+        double probeMillis = medianMillis(
+                new Argon2PasswordEncoder(saltLength, hashLength, parallelism, memoryKib, 1));
+        return Math.max(1, (int) Math.round(targetMillis / probeMillis));
+    }
+
+    private static double medianMillis(PasswordEncoder encoder) {
+        // Warm up once so class loading and JIT do not skew the first sample
+        encoder.encode(PROBE_PASSWORD);
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(PROBE_PASSWORD);
+            samples[i] = Math.max(0.001, (System.nanoTime() - start) / 1_000_000.0);
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
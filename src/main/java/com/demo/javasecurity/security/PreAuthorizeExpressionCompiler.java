@@ -0,0 +1,265 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.model.Role;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compiles the subset of {@code @PreAuthorize} SpEL used in this application
+ * into plain Java predicates:
+ * <ul>
+ *     <li>{@code hasRole('X')}, {@code hasAnyRole('X', ...)}, {@code hasAuthority('ROLE_X')}
+ *         for roles of the {@link Role} enum, evaluated as bit tests on a {@link RoleSet} mask</li>
+ *     <li>{@code isAuthenticated()}, {@code isAnonymous()}, {@code permitAll}, {@code denyAll}</li>
+ *     <li>{@code #param == authentication.name} (either side)</li>
+ *     <li>{@code and}, {@code or}, {@code !} / {@code not} and parentheses</li>
+ * </ul>
+ * Anything else throws {@link UnsupportedExpressionException} so the caller
+ * can fall back to regular SpEL evaluation.
+ */
+public final class PreAuthorizeExpressionCompiler {
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    /**
+     * A compiled expression. {@code roles} is the {@link RoleSet} mask of the
+     * current authentication and {@code args} the method invocation arguments.
+     */
+    @FunctionalInterface
+    public interface CompiledExpression {
+        boolean evaluate(long roles, Authentication authentication, Object[] args);
+    }
+
+    public static class UnsupportedExpressionException extends RuntimeException {
+        public UnsupportedExpressionException(String message) {
+            super(message);
+        }
+    }
+
+    private PreAuthorizeExpressionCompiler() {
+    }
+
+    public static CompiledExpression compile(String expression, Method method) {
+        Parser parser = new Parser(tokenize(expression), method);
+        CompiledExpression compiled = parser.parseOr();
+        if (!parser.atEnd()) {
+            throw new UnsupportedExpressionException("Unexpected token '" + parser.peek() + "' in: " + expression);
+        }
+        return compiled;
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'') {
+                int end = expression.indexOf('\'', i + 1);
+                if (end < 0) {
+                    throw new UnsupportedExpressionException("Unterminated string in: " + expression);
+                }
+                tokens.add(expression.substring(i, end + 1));
+                i = end + 1;
+            } else if (expression.startsWith("==", i) || expression.startsWith("&&", i)
+                    || expression.startsWith("||", i)) {
+                tokens.add(expression.substring(i, i + 2));
+                i += 2;
+            } else if ("()!,".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '#' || Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < expression.length()
+                        && (Character.isJavaIdentifierPart(expression.charAt(end)) || expression.charAt(end) == '.')) {
+                    end++;
+                }
+                tokens.add(expression.substring(i, end));
+                i = end;
+            } else {
+                throw new UnsupportedExpressionException("Unsupported character '" + c + "' in: " + expression);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private final Method method;
+        private int position;
+
+        Parser(List<String> tokens, Method method) {
+            this.tokens = tokens;
+            this.method = method;
+        }
+
+        boolean atEnd() {
+            return position >= tokens.size();
+        }
+
+        String peek() {
+            return atEnd() ? null : tokens.get(position);
+        }
+
+        String next() {
+            if (atEnd()) {
+                throw new UnsupportedExpressionException("Unexpected end of expression");
+            }
+            return tokens.get(position++);
+        }
+
+        void expect(String token) {
+            String actual = next();
+            if (!token.equals(actual)) {
+                throw new UnsupportedExpressionException("Expected '" + token + "' but found '" + actual + "'");
+            }
+        }
+
+        CompiledExpression parseOr() {
+            CompiledExpression left = parseAnd();
+            while ("or".equals(peek()) || "||".equals(peek())) {
+                next();
+                CompiledExpression l = left;
+                CompiledExpression r = parseAnd();
+                left = (roles, auth, args) -> l.evaluate(roles, auth, args) || r.evaluate(roles, auth, args);
+            }
+            return left;
+        }
+
+        CompiledExpression parseAnd() {
+            CompiledExpression left = parseUnary();
+            while ("and".equals(peek()) || "&&".equals(peek())) {
+                next();
+                CompiledExpression l = left;
+                CompiledExpression r = parseUnary();
+                left = (roles, auth, args) -> l.evaluate(roles, auth, args) && r.evaluate(roles, auth, args);
+            }
+            return left;
+        }
+
+        CompiledExpression parseUnary() {
+            if ("!".equals(peek()) || "not".equals(peek())) {
+                next();
+                CompiledExpression operand = parseUnary();
+                return (roles, auth, args) -> !operand.evaluate(roles, auth, args);
+            }
+            return parsePrimary();
+        }
+
+        CompiledExpression parsePrimary() {
+            String token = next();
+            if ("(".equals(token)) {
+                CompiledExpression inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            if ("==".equals(peek())) {
+                next();
+                return comparison(token, next());
+            }
+            switch (token) {
+                case "permitAll":
+                    optionalNoArguments();
+                    return (roles, auth, args) -> true;
+                case "denyAll":
+                    optionalNoArguments();
+                    return (roles, auth, args) -> false;
+                case "isAuthenticated":
+                    noArguments();
+                    // SecurityExpressionRoot.isAuthenticated() is !isAnonymous(); it does not
+                    // consult Authentication.isAuthenticated(), so neither may this
+                    return (roles, auth, args) -> auth != null && !TRUST_RESOLVER.isAnonymous(auth);
+                case "isAnonymous":
+                    noArguments();
+                    return (roles, auth, args) -> TRUST_RESOLVER.isAnonymous(auth);
+                case "hasRole":
+                case "hasAnyRole":
+                case "hasAuthority":
+                case "hasAnyAuthority":
+                    long required = roleArguments(token.endsWith("Authority"));
+                    return (roles, auth, args) -> (roles & required) != 0;
+                default:
+                    throw new UnsupportedExpressionException("Unsupported term: " + token);
+            }
+        }
+
+        private void noArguments() {
+            expect("(");
+            expect(")");
+        }
+
+        // permitAll and denyAll may be written as a property or as a method call
+        private void optionalNoArguments() {
+            if ("(".equals(peek())) {
+                noArguments();
+            }
+        }
+
+        private long roleArguments(boolean authority) {
+            expect("(");
+            long mask = 0L;
+            while (true) {
+                String literal = next();
+                if (!literal.startsWith("'")) {
+                    throw new UnsupportedExpressionException("Expected a string literal but found " + literal);
+                }
+                String value = literal.substring(1, literal.length() - 1);
+                if (authority && !value.startsWith("ROLE_")) {
+                    throw new UnsupportedExpressionException("Authority is not a role: " + value);
+                }
+                Role role = RoleSet.fromAuthority(value);
+                if (role == null) {
+                    throw new UnsupportedExpressionException("Unknown role: " + value);
+                }
+                mask |= RoleSet.of(role);
+                if (!",".equals(peek())) {
+                    break;
+                }
+                next();
+            }
+            expect(")");
+            return mask;
+        }
+
+        private CompiledExpression comparison(String left, String right) {
+            if (left.startsWith("#") && "authentication.name".equals(right)) {
+                int index = parameterIndex(left.substring(1));
+                return (roles, auth, args) -> auth != null && Objects.equals(args[index], auth.getName());
+            }
+            if ("authentication.name".equals(left) && right.startsWith("#")) {
+                return comparison(right, left);
+            }
+            throw new UnsupportedExpressionException("Unsupported comparison: " + left + " == " + right);
+        }
+
+        private int parameterIndex(String name) {
+            String[] names = PARAMETER_NAMES.getParameterNames(method);
+            if (names != null) {
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equals(name)) {
+                        return i;
+                    }
+                }
+            }
+            if (name.matches("[pa]\\d+")) {
+                int index = Integer.parseInt(name.substring(1));
+                if (index < method.getParameterCount()) {
+                    return index;
+                }
+            }
+            throw new UnsupportedExpressionException("Unknown parameter #" + name + " on " + method);
+        }
+    }
+}
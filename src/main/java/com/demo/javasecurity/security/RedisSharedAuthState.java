@@ -0,0 +1,168 @@
+package com.demo.javasecurity.security;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link SharedAuthState} over Redis pub/sub, one channel for all changes.
+ * Publishing is asynchronous; while Redis is unreachable, up to
+ * {@link #REQUEST_QUEUE_SIZE} publishes are queued and sent after the client
+ * reconnects. Pub/sub does not replay messages a subscriber missed, so when
+ * the subscription is re-established listeners are told to resync.
+ * <p>
+ * Received changes are applied on a single thread of their own, in order, off
+ * the Redis I/O thread.
+ */
+@Component
+@ConditionalOnProperty(name = "security.shared-state.store", havingValue = "redis")
+public class RedisSharedAuthState implements SharedAuthState {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedAuthState.class);
+
+    private static final int REQUEST_QUEUE_SIZE = 10_000;
+
+    @Value("${security.shared-state.redis.uri:redis://localhost:6379}")
+    private String uri;
+
+    @Value("${security.shared-state.channel:auth-state}")
+    private String channel;
+
+    // Prefixed to every message so an instance can skip its own
+    private final String origin = UUID.randomUUID().toString();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean subscribedBefore = new AtomicBoolean();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    private RedisClient client;
+
+    private StatefulRedisConnection<String, String> connection;
+
+    private StatefulRedisPubSubConnection<String, String> subscription;
+
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    void init() {
+        dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shared-auth-state");
+            thread.setDaemon(true);
+            return thread;
+        });
+        client = RedisClient.create(uri);
+        client.setOptions(ClientOptions.builder().requestQueueSize(REQUEST_QUEUE_SIZE).build());
+        connection = client.connect();
+        subscription = client.connectPubSub();
+        subscription.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                dispatcher.execute(() -> receive(message));
+            }
+
+            @Override
+            public void subscribed(String channel, long count) {
+                if (subscribedBefore.getAndSet(true)) {
+                    dispatcher.execute(RedisSharedAuthState.this::resync);
+                }
+            }
+        });
+        subscription.sync().subscribe(channel);
+        logger.info("Sharing auth state through Redis channel '{}' as instance {}", channel, origin);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscription.close();
+        connection.close();
+        client.shutdown();
+        dispatcher.shutdown();
+    }
+
+    @Override
+    public void publish(AuthStateChange change) {
+        published.increment();
+        connection.async().publish(channel, origin + ' ' + change.encode())
+                .whenComplete((receivers, failure) -> {
+                    if (failure != null) {
+                        publishFailures.increment();
+                        logger.warn("Cannot publish {} for {}: {}", change.getType(), change.getKey(),
+                                    failure.getMessage());
+                    }
+                });
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", "redis");
+        stats.put("channel", channel);
+        stats.put("connected", connection.isOpen() && subscription.isOpen());
+        stats.put("published", published.sum());
+        stats.put("publishFailures", publishFailures.sum());
+        stats.put("received", received.sum());
+        stats.put("resyncs", resyncs.sum());
+        return stats;
+    }
+
+    private void receive(String message) {
+        int separator = message.indexOf(' ');
+        if (separator < 0 || origin.equals(message.substring(0, separator))) {
+            return;
+        }
+        AuthStateChange change = AuthStateChange.decode(message.substring(separator + 1));
+        if (change == null) {
+            logger.warn("Ignoring malformed auth state message");
+            return;
+        }
+        received.increment();
+        for (Listener listener : listeners) {
+            try {
+                listener.onChange(change);
+            } catch (RuntimeException e) {
+                logger.error("Cannot apply {} for {}: {}", change.getType(), change.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void resync() {
+        resyncs.increment();
+        logger.info("Redis subscription re-established, reloading shared auth state");
+        for (Listener listener : listeners) {
+            try {
+                listener.onResync();
+            } catch (RuntimeException e) {
+                logger.error("Cannot resync auth state: {}", e.getMessage());
+            }
+        }
+    }
+}
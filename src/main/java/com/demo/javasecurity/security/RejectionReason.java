@@ -0,0 +1,78 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.util.JwtVerificationResult.FailureReason;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Why a request ended up unauthenticated. Used as the tag of the
+ * {@code auth.rejections} counter.
+ */
+public enum RejectionReason {
+    MISSING_TOKEN,
+    MALFORMED_TOKEN,
+    INVALID_SIGNATURE,
+    EXPIRED_TOKEN,
+    INVALID_CLAIM,
+    REVOKED_TOKEN,
+    UNKNOWN_USER,
+    ACCOUNT_STATUS,
+    BAD_CREDENTIALS,
+    OTHER;
+
+    public static RejectionReason of(FailureReason failureReason) {
+        if (failureReason == null) {
+            return OTHER;
+        }
+        switch (failureReason) {
+            case MISSING:
+                return MISSING_TOKEN;
+            case MALFORMED:
+                return MALFORMED_TOKEN;
+            case INVALID_SIGNATURE:
+                return INVALID_SIGNATURE;
+            case EXPIRED:
+                return EXPIRED_TOKEN;
+            case INVALID_CLAIM:
+                return INVALID_CLAIM;
+            default:
+                return OTHER;
+        }
+    }
+
+    /**
+     * Classifies an exception raised while authenticating. Anything that is
+     * not a credential problem is reported as {@link #OTHER}.
+     */
+    public static RejectionReason of(Throwable exception) {
+        if (exception instanceof InvalidBearerTokenException invalidToken) {
+            return invalidToken.getRejectionReason();
+        }
+        if (exception instanceof UsernameNotFoundException) {
+            return UNKNOWN_USER;
+        }
+        if (exception instanceof AccountStatusException) {
+            return ACCOUNT_STATUS;
+        }
+        if (exception instanceof BadCredentialsException) {
+            return BAD_CREDENTIALS;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Reason for an entry-point invocation. {@code recorded} is what the token
+     * filter stored for the request, if anything; without it, an
+     * {@link org.springframework.security.authentication.InsufficientAuthenticationException}
+     * means no credentials were sent at all.
+     */
+    public static RejectionReason of(RejectionReason recorded, AuthenticationException exception) {
+        if (recorded != null) {
+            return recorded;
+        }
+        RejectionReason reason = of(exception);
+        return reason == OTHER ? MISSING_TOKEN : reason;
+    }
+}
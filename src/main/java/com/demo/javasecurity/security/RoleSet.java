@@ -0,0 +1,59 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.model.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Represents a set of {@link Role}s as a bit mask (one bit per enum ordinal),
+ * so role checks become a single AND.
+ */
+public final class RoleSet {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final Role[] ROLES = Role.values();
+
+    private RoleSet() {
+    }
+
+    public static long of(Role role) {
+        return 1L << role.ordinal();
+    }
+
+    /**
+     * Bit mask of the roles among the authentication's granted authorities,
+     * which is what SpEL's hasRole checks; the principal is not consulted.
+     * Authorities that do not correspond to a {@link Role} (e.g. ROLE_ANONYMOUS)
+     * are ignored.
+     */
+    public static long of(Authentication authentication) {
+        if (authentication == null) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            Role role = fromAuthority(authority.getAuthority());
+            if (role != null) {
+                mask |= of(role);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Resolves "ADMIN" or "ROLE_ADMIN" to its {@link Role}, or null if unknown.
+     */
+    public static Role fromAuthority(String authority) {
+        if (authority == null) {
+            return null;
+        }
+        String name = authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority;
+        for (Role role : ROLES) {
+            if (role.name().equals(name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
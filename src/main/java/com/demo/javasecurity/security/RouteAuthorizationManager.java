@@ -0,0 +1,199 @@
+package com.demo.javasecurity.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Request authorization table compiled into a trie keyed on path segments.
+ * A request is resolved in a single walk down the trie instead of testing
+ * every pattern in order. Supported patterns are exact paths ("/a/b") and
+ * prefixes ("/a/b/**", which also matches "/a/b"); when several match, the
+ * most specific one wins.
+ */
+public final class RouteAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final Node root;
+    private final Rule defaultRule;
+
+    private RouteAuthorizationManager(Node root, Rule defaultRule) {
+        this.root = root;
+        this.defaultRule = defaultRule;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return resolve(requestPath(context.getRequest())).check(authentication);
+    }
+
+    /**
+     * Returns the rule that applies to the given path.
+     */
+    public Rule resolve(String path) {
+        Node node = root;
+        Rule match = root.prefixRule;
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                return match != null ? match : defaultRule;
+            }
+            if (node.prefixRule != null) {
+                match = node.prefixRule;
+            }
+            start = end;
+        }
+        if (node.exactRule != null) {
+            return node.exactRule;
+        }
+        return match != null ? match : defaultRule;
+    }
+
+    private static String requestPath(HttpServletRequest request) {
+        String pathInfo = request.getPathInfo();
+        return pathInfo != null ? request.getServletPath() + pathInfo : request.getServletPath();
+    }
+
+    /**
+     * Authorization outcome for one route.
+     */
+    public interface Rule {
+
+        AuthorizationDecision check(Supplier<Authentication> authentication);
+
+        static Rule permitAll() {
+            return authentication -> GRANTED;
+        }
+
+        static Rule denyAll() {
+            return authentication -> DENIED;
+        }
+
+        static Rule authenticated() {
+            return authentication -> isAuthenticated(authentication.get()) ? GRANTED : DENIED;
+        }
+
+        static Rule hasRole(String role) {
+            String authority = "ROLE_" + role;
+            return authentication -> {
+                Authentication auth = authentication.get();
+                if (!isAuthenticated(auth)) {
+                    return DENIED;
+                }
+                for (GrantedAuthority granted : auth.getAuthorities()) {
+                    if (authority.equals(granted.getAuthority())) {
+                        return GRANTED;
+                    }
+                }
+                return DENIED;
+            };
+        }
+
+        private static boolean isAuthenticated(Authentication authentication) {
+            return authentication != null && authentication.isAuthenticated()
+                    && !TRUST_RESOLVER.isAnonymous(authentication);
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private Rule exactRule;
+        private Rule prefixRule;
+    }
+
+    public static final class Builder {
+
+        private final Node root = new Node();
+        private Rule defaultRule = Rule.authenticated();
+
+        private Builder() {
+        }
+
+        public Builder permitAll(String... patterns) {
+            return rule(Rule.permitAll(), patterns);
+        }
+
+        public Builder authenticated(String... patterns) {
+            return rule(Rule.authenticated(), patterns);
+        }
+
+        public Builder hasRole(String role, String... patterns) {
+            return rule(Rule.hasRole(role), patterns);
+        }
+
+        /**
+         * Registers the rule for each pattern. Registering the same pattern
+         * twice is a configuration error.
+         */
+        public Builder rule(Rule rule, String... patterns) {
+            for (String pattern : patterns) {
+                add(pattern, rule);
+            }
+            return this;
+        }
+
+        public Builder anyRequest(Rule rule) {
+            this.defaultRule = rule;
+            return this;
+        }
+
+        public RouteAuthorizationManager build() {
+            return new RouteAuthorizationManager(root, defaultRule);
+        }
+
+        private void add(String pattern, Rule rule) {
+            if (!pattern.startsWith("/")) {
+                throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+            }
+            boolean prefix = pattern.endsWith("/**");
+            String path = prefix ? pattern.substring(0, pattern.length() - 3) : pattern;
+
+            Node node = root;
+            for (String segment : path.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.contains("*") || segment.contains("{")) {
+                    throw new IllegalArgumentException("Only exact and trailing /** patterns are supported: " + pattern);
+                }
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+
+            if (prefix ? node.prefixRule != null : node.exactRule != null) {
+                throw new IllegalArgumentException("Duplicate route pattern: " + pattern);
+            }
+            if (prefix) {
+                node.prefixRule = rule;
+            } else {
+                node.exactRule = rule;
+            }
+        }
+    }
+}
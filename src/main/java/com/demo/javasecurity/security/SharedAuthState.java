@@ -0,0 +1,41 @@
+package com.demo.javasecurity.security;
+
+import java.util.Map;
+
+/**
+ * Auth state shared between the instances of a cluster. Each instance answers
+ * per-request checks from its own near-caches ({@link TokenRevocationList},
+ * {@code UserDetailsCache}) so the request path never leaves the JVM; this
+ * carries the changes that keep those copies current. The database remains
+ * the system of record, which is what {@link Listener#onResync} reloads from.
+ * <p>
+ * Selected with {@code security.shared-state.store}: {@code memory}
+ * ({@link InMemorySharedAuthState}, the default) or {@code redis}
+ * ({@link RedisSharedAuthState}).
+ */
+public interface SharedAuthState {
+
+    /**
+     * Sends {@code change} to every other instance. Delivery is best effort and
+     * must not block the caller on the network.
+     */
+    void publish(AuthStateChange change);
+
+    /**
+     * Registers a listener for changes published by other instances.
+     */
+    void subscribe(Listener listener);
+
+    Map<String, Object> stats();
+
+    interface Listener {
+
+        void onChange(AuthStateChange change);
+
+        /**
+         * Changes may have been missed, e.g. while disconnected from the store;
+         * local state should be reloaded from the database.
+         */
+        void onResync();
+    }
+}
@@ -0,0 +1,25 @@
+package com.demo.javasecurity.security;
+
+import org.springframework.security.authentication.AccountExpiredException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+
+/**
+ * Account checks for callers that already hold a token (bearer and refresh).
+ * Unlike {@link org.springframework.security.authentication.AccountStatusUserDetailsChecker}
+ * it ignores the lockout: a lock only stops password guessing, so it must not
+ * sign out sessions that were established before it.
+ */
+public final class TokenAccountStatusChecker implements UserDetailsChecker {
+
+    @Override
+    public void check(UserDetails user) {
+        if (!user.isEnabled()) {
+            throw new DisabledException("User is disabled");
+        }
+        if (!user.isAccountNonExpired()) {
+            throw new AccountExpiredException("User account has expired");
+        }
+    }
+}
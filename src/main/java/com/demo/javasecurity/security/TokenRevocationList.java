@@ -0,0 +1,205 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.model.RevokedToken;
+import com.demo.javasecurity.repository.RevokedTokenRepository;
+import com.demo.javasecurity.util.BloomFilter;
+import com.demo.javasecurity.util.JwtUtil;
+import com.demo.javasecurity.util.JwtVerificationResult;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revoked token ids (jti), checked on every authenticated request.
+ * <p>
+ * Lookups go through a {@link BloomFilter} first: a miss, which is the answer
+ * for practically every request, costs a few hashes and no map access. Only
+ * filter hits consult the exact set. Revocations are persisted and reloaded
+ * at startup; entries are dropped once the token would have expired anyway,
+ * and the filter is rebuilt at the same time since Bloom filters cannot
+ * forget elements.
+ * <p>
+ * In a cluster this is each instance's near-cache of the revocations table:
+ * revocations are broadcast through {@link SharedAuthState} and applied by
+ * the other instances without touching the database.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    // Rough heap cost of one ConcurrentHashMap entry with a 22-char key and a boxed Long
+    private static final long ESTIMATED_ENTRY_BYTES = 120;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtils;
+
+    @Autowired
+    private SharedAuthState sharedAuthState;
+
+    @Value("${security.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    // Serializes revocations with filter rebuilds so no entry misses the new filter
+    private final Object writeLock = new Object();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        load();
+        logger.info("Token revocation list loaded {} entries", revoked.size());
+        sharedAuthState.subscribe(new SharedAuthState.Listener() {
+            @Override
+            public void onChange(AuthStateChange change) {
+                if (change.getType() == AuthStateChange.Type.TOKEN_REVOKED
+                        && change.getExpiresAt() > System.currentTimeMillis()) {
+                    add(change.getKey(), change.getExpiresAt());
+                }
+            }
+
+            @Override
+            public void onResync() {
+                load();
+            }
+        });
+    }
+
+    /**
+     * Whether the token with this id was revoked. Tokens without an id
+     * (issued before jti was added) cannot be revoked individually.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        checks.increment();
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        filterHits.increment();
+        Long expiresAt = revoked.get(tokenId);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Revokes an access token given in full. Returns its expiry, or null when
+     * the token is invalid, already expired or carries no jti.
+     */
+    public Instant revokeToken(String token) {
+        JwtVerificationResult result = jwtUtils.verifyJwtToken(token);
+        if (!result.isValid() || result.getTokenId() == null) {
+            return null;
+        }
+        return revoke(result.getTokenId(), result.getExpiresAt()) ? result.getExpiresAt() : null;
+    }
+
+    /**
+     * Revokes a token known only by its jti. Its expiry is unknown, so the
+     * entry is kept for the longest lifetime an access token can have.
+     */
+    public Instant revokeTokenId(String tokenId) {
+        Instant expiresAt = Instant.now().plusMillis(jwtUtils.getJwtExpirationMs());
+        revoke(tokenId, expiresAt);
+        return expiresAt;
+    }
+
+    /**
+     * Revokes a token until its expiry. Returns false if it has already expired,
+     * in which case there is nothing to revoke.
+     */
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return false;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt));
+        add(tokenId, expiresAt.toEpochMilli());
+        sharedAuthState.publish(AuthStateChange.tokenRevoked(tokenId, expiresAt.toEpochMilli()));
+        logger.info("Revoked token {} until {}", tokenId, expiresAt);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (revoked.size() < before) {
+            rebuildFilter();
+            revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+            logger.debug("Purged {} expired revocations", before - revoked.size());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        BloomFilter current = filter;
+        long lookups = checks.sum();
+        long hits = filterHits.sum();
+        long misses = lookups - (hits - falsePositives.sum());
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("entries", revoked.size());
+        stats.put("filterBits", current.bitSize());
+        stats.put("filterHashFunctions", current.hashFunctions());
+        stats.put("filterMemoryBytes", current.memoryBytes());
+        stats.put("exactSetMemoryBytesEstimate", revoked.size() * ESTIMATED_ENTRY_BYTES);
+        stats.put("expectedFalsePositiveRate", current.expectedFalsePositiveRate());
+        stats.put("checks", lookups);
+        stats.put("filterHits", hits);
+        stats.put("falsePositives", falsePositives.sum());
+        stats.put("observedFalsePositiveRate", misses > 0 ? (double) falsePositives.sum() / misses : 0.0);
+        return stats;
+    }
+
+    // Adds the persisted, unexpired revocations; entries are only ever removed by the purge
+    private void load() {
+        long now = System.currentTimeMillis();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(Instant.ofEpochMilli(now))) {
+            revoked.put(token.getTokenId(), token.getExpiresAt().toEpochMilli());
+        }
+        rebuildFilter();
+    }
+
+    private void add(String tokenId, long expiresAt) {
+        synchronized (writeLock) {
+            revoked.put(tokenId, expiresAt);
+            filter.put(tokenId);
+        }
+    }
+
+    private void rebuildFilter() {
+        synchronized (writeLock) {
+            // Grow with the list so the false-positive rate stays near the target
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedEntries, 2L * revoked.size()), falsePositiveRate);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.model.AuditEvent;
+import com.demo.javasecurity.service.AuditLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Builds 401 bodies for both entry points. Bodies are rendered once per
+ * path and message with a streaming generator and then served from a bounded
+ * cache, so a wave of rejected requests costs a lookup and a write. With
+ * {@code security.unauthorized.minimal-body} every 401 shares one constant
+ * body without path or message.
+ */
+@Component
+public class UnauthorizedResponseWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnauthorizedResponseWriter.class);
+
+    /**
+     * Request/exchange attribute under which the token filters record the
+     * {@link RejectionReason} of a rejected token.
+     */
+    public static final String REASON_ATTRIBUTE = UnauthorizedResponseWriter.class.getName() + ".reason";
+
+    private static final int STATUS = 401;
+    private static final String ERROR = "Unauthorized";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${security.unauthorized.minimal-body:false}")
+    private boolean minimalBody;
+
+    // Paths are client controlled, so the number of cached bodies is capped
+    @Value("${security.unauthorized.body-cache-size:1024}")
+    private long bodyCacheSize;
+
+    private Cache<String, byte[]> bodies;
+
+    private byte[] minimal;
+
+    private final Map<RejectionReason, Counter> rejections = new EnumMap<>(RejectionReason.class);
+
+    @PostConstruct
+    void init() {
+        bodies = Caffeine.newBuilder().maximumSize(bodyCacheSize).build();
+        minimal = render(null, null);
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejections.put(reason, Counter.builder("auth.rejections")
+                    .description("Requests rejected with 401, by reason")
+                    .tag("reason", reason.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Counts the rejection and returns the JSON body to send. The returned
+     * array is shared and must not be modified. {@code recorded} is the reason
+     * the token filter stored for the request, if any; only such rejected
+     * tokens are audited, since sign-in failures are audited where they occur.
+     */
+    public byte[] reject(RejectionReason recorded, AuthenticationException exception, String path, String clientIp) {
+        RejectionReason reason = RejectionReason.of(recorded, exception);
+        String message = exception.getMessage();
+        rejections.get(reason).increment();
+        if (recorded != null) {
+            auditLog.record(AuditEvent.Type.TOKEN_REJECTED, null, clientIp, reason + " " + path);
+        }
+        logger.debug("Unauthorized ({}) {}: {}", reason, path, message);
+
+        if (minimalBody) {
+            return minimal;
+        }
+        return bodies.get(path + '\n' + message, key -> render(path, message));
+    }
+
+    private byte[] render(String path, String message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("status", STATUS);
+            generator.writeStringField("error", ERROR);
+            if (path != null) {
+                generator.writeStringField("message", message);
+                generator.writeStringField("path", path);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
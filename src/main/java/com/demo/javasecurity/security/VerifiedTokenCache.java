@@ -0,0 +1,114 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.util.JwtUtil;
+import com.demo.javasecurity.util.JwtVerificationResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers the outcome of verifying a bearer token, keyed by the SHA-256
+ * digest of the token so raw tokens are never held in memory. Valid results
+ * live until the token's own exp; rejected tokens are cached for a short,
+ * fixed time so floods of the same bad token skip signature verification.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Autowired
+    private JwtUtil jwtUtils;
+
+    @Value("${security.token-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.token-cache.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${security.token-cache.negative-ttl:10s}")
+    private Duration negativeTtl;
+
+    private Cache<ByteBuffer, JwtVerificationResult> cache;
+
+    private MessageDigest digestPrototype;
+
+    @PostConstruct
+    void init() throws NoSuchAlgorithmException {
+        digestPrototype = MessageDigest.getInstance("SHA-256");
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ResultExpiry(negativeTtl))
+                .recordStats()
+                .build();
+    }
+
+    public JwtVerificationResult verify(String token) {
+        if (!enabled) {
+            return jwtUtils.verifyJwtToken(token);
+        }
+        return cache.get(digest(token), key -> jwtUtils.verifyJwtToken(token));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private ByteBuffer digest(String token) {
+        MessageDigest digest;
+        try {
+            digest = (MessageDigest) digestPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", e);
+        }
+        // UTF-8 keeps every string distinct; US-ASCII would map any non-ASCII char to '?'
+        return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class ResultExpiry implements Expiry<ByteBuffer, JwtVerificationResult> {
+
+        private final long negativeTtlNanos;
+
+        ResultExpiry(Duration negativeTtl) {
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, JwtVerificationResult result, long currentTime) {
+            if (!result.isValid()) {
+                return negativeTtlNanos;
+            }
+            Instant expiresAt = result.getExpiresAt();
+            if (expiresAt == null) {
+                return negativeTtlNanos;
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, JwtVerificationResult result,
+                                      long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, JwtVerificationResult result,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
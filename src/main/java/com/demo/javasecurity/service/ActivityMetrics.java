@@ -0,0 +1,199 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.util.HyperLogLog;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters behind the dashboards and the {@code /actuator/metrics}
+ * meters. Request counters are {@link LongAdder}s. Active users are counted
+ * with one {@link HyperLogLog} per time bucket over a sliding window, so a
+ * request costs one hash and a few CAS at most. The user total is loaded
+ * once and then kept current from {@link UserChangedEvent}s, so reading the
+ * dashboard runs no query.
+ */
+@Service
+public class ActivityMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityMetrics.class);
+
+    // 4096 registers, about 1.6% standard error
+    private static final int PRECISION = 12;
+
+    // The window estimate merges every bucket, so it is reused for this long
+    private static final long ESTIMATE_TTL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${metrics.active-users.window:15m}")
+    private Duration window;
+
+    @Value("${metrics.active-users.buckets:15}")
+    private int bucketCount;
+
+    private final LongAdder authenticatedRequests = new LongAdder();
+    private final LongAdder signIns = new LongAdder();
+    private final LongAdder signInFailures = new LongAdder();
+    private final LongAdder tokenRefreshes = new LongAdder();
+
+    private final AtomicLong totalUsers = new AtomicLong();
+
+    private final Instant startedAt = Instant.now();
+
+    private long bucketMillis;
+
+    private AtomicReferenceArray<Bucket> buckets;
+
+    private volatile ActiveEstimate activeEstimate = new ActiveEstimate(0, System.nanoTime() - ESTIMATE_TTL_NANOS);
+
+    // One time slice of the window; replaced when its slot comes round again
+    private static final class Bucket {
+        final long slot;
+        final HyperLogLog users = new HyperLogLog(PRECISION);
+
+        Bucket(long slot) {
+            this.slot = slot;
+        }
+    }
+
+    private record ActiveEstimate(long value, long computedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        bucketCount = Math.max(1, bucketCount);
+        bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+        buckets = new AtomicReferenceArray<>(bucketCount);
+        totalUsers.set(userRepository.count());
+
+        FunctionCounter.builder("auth.requests.authenticated", authenticatedRequests, LongAdder::sum)
+                .description("Requests authenticated with a bearer token")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.signin", signIns, LongAdder::sum)
+                .tag("result", "success")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.signin", signInFailures, LongAdder::sum)
+                .tag("result", "failure")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.token.refresh", tokenRefreshes, LongAdder::sum)
+                .description("Refresh tokens exchanged for a new access token")
+                .register(meterRegistry);
+        Gauge.builder("users.total", totalUsers, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("users.active", this, ActivityMetrics::activeUsers)
+                .description("Distinct users authenticated within the active-users window (estimate)")
+                .register(meterRegistry);
+
+        logger.info("Activity metrics: active-users window={} in {} buckets, {} users", window, bucketCount,
+                    totalUsers.get());
+    }
+
+    public void recordAuthenticated(String username) {
+        authenticatedRequests.increment();
+        long slot = System.currentTimeMillis() / bucketMillis;
+        int index = (int) (slot % bucketCount);
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.slot < slot) {
+            Bucket fresh = new Bucket(slot);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(index);
+            }
+        }
+        bucket.users.add(username);
+    }
+
+    public void recordSignIn(boolean success) {
+        (success ? signIns : signInFailures).increment();
+    }
+
+    public void recordTokenRefresh() {
+        tokenRefreshes.increment();
+    }
+
+    public long totalUsers() {
+        return totalUsers.get();
+    }
+
+    /**
+     * Estimated number of distinct users authenticated within the window.
+     */
+    public long activeUsers() {
+        ActiveEstimate estimate = activeEstimate;
+        long now = System.nanoTime();
+        if (now - estimate.computedAt() < ESTIMATE_TTL_NANOS) {
+            return estimate.value();
+        }
+        long oldestSlot = System.currentTimeMillis() / bucketMillis - bucketCount + 1;
+        int[] registers = null;
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.slot >= oldestSlot) {
+                if (registers == null) {
+                    registers = new int[bucket.users.registerCount()];
+                }
+                bucket.users.mergeInto(registers);
+            }
+        }
+        long value = registers != null ? HyperLogLog.estimate(registers) : 0;
+        activeEstimate = new ActiveEstimate(value, now);
+        return value;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("totalUsers", totalUsers());
+        snapshot.put("activeUsers", activeUsers());
+        snapshot.put("activeUsersWindow", window.toString());
+        snapshot.put("authenticatedRequests", authenticatedRequests.sum());
+        snapshot.put("signIns", signIns.sum());
+        snapshot.put("failedSignIns", signInFailures.sum());
+        snapshot.put("tokenRefreshes", tokenRefreshes.sum());
+        snapshot.put("since", startedAt);
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.CREATED) {
+            totalUsers.addAndGet(event.getCount());
+        } else if (event.getType() == UserChangedEvent.Type.DELETED) {
+            totalUsers.addAndGet(-event.getCount());
+        }
+    }
+
+    // Bulk JPQL statements bypass the entity listener; resync the total now and then
+    @Scheduled(fixedDelayString = "${metrics.users.resync-interval:600000}",
+               initialDelayString = "${metrics.users.resync-interval:600000}")
+    public void resyncTotalUsers() {
+        long count = userRepository.count();
+        long previous = totalUsers.getAndSet(count);
+        if (previous != count) {
+            logger.debug("Resynced user total from {} to {}", previous, count);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.dto.AdminResponse;
+import com.demo.javasecurity.dto.IssuedToken;
+import com.demo.javasecurity.dto.UserImportResult;
+import com.demo.javasecurity.dto.UserSummary;
+import com.demo.javasecurity.model.AuditEvent;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.security.SharedAuthState;
+import com.demo.javasecurity.security.TokenRevocationList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class AdminOperations {
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private SharedAuthState sharedAuthState;
+
+    @Autowired
+    private TokenBatchService tokenBatchService;
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    public AdminResponse.Dashboard dashboard(User user) {
+        return AdminResponse.Dashboard.of(user.getUsername(), user.getRole(), activityMetrics.snapshot());
+    }
+
+    public AdminResponse.SystemConfig updateSystemConfig(Map<String, Object> config, User user) {
+        auditLog.record(AuditEvent.Type.ADMIN_ACTION, user.getUsername(), null,
+                        "updateSystemConfig " + config.keySet());
+        return AdminResponse.SystemConfig.of(user.getUsername(), config);
+    }
+
+    public AdminResponse.RevocationStats revocationStats() {
+        return AdminResponse.RevocationStats.of(tokenRevocationList.stats(), sharedAuthState.stats());
+    }
+
+    // Accepts either the full token or just its jti
+    public ResponseEntity<AdminResponse> revokeToken(Map<String, Object> request, User user) {
+        Instant expiresAt;
+        if (request.get("token") instanceof String token) {
+            expiresAt = tokenRevocationList.revokeToken(token);
+        } else if (request.get("jti") instanceof String tokenId) {
+            expiresAt = tokenRevocationList.revokeTokenId(tokenId);
+        } else {
+            expiresAt = null;
+        }
+
+        if (expiresAt == null) {
+            return ResponseEntity.badRequest().body(
+                    AdminResponse.Rejected.rejected("Provide a valid, unexpired 'token' or a 'jti' to revoke"));
+        }
+        auditLog.record(AuditEvent.Type.ADMIN_ACTION, user.getUsername(), null, "revokeToken until " + expiresAt);
+        return ResponseEntity.ok(AdminResponse.TokenRevoked.of(expiresAt.toString(), user.getUsername()));
+    }
+
+    public ResponseEntity<AdminResponse> batchIssueTokens(List<String> usernames, User user) {
+        if (usernames.size() > tokenBatchService.getMaxBatchSize()) {
+            return ResponseEntity.badRequest().body(AdminResponse.Rejected.rejected(
+                    "At most " + tokenBatchService.getMaxBatchSize() + " usernames per batch"));
+        }
+        List<IssuedToken> results = tokenBatchService.issue(usernames);
+        auditLog.record(AuditEvent.Type.ADMIN_ACTION, user.getUsername(), null, "issueTokens " + results.size());
+        return ResponseEntity.ok(AdminResponse.TokensIssued.of(results, user.getUsername()));
+    }
+
+    public AdminResponse.AuditEvents auditEvents(int limit, AuditEvent.Type type, String user) {
+        return AdminResponse.AuditEvents.of(auditLog.query(limit, type, user), auditLog.stats());
+    }
+
+    public AdminResponse.UsersPage usersPage(long after, Integer limit) {
+        int pageSize = userAdminService.pageSize(limit);
+        List<UserSummary> users = userAdminService.listUsers(after, pageSize);
+        return AdminResponse.UsersPage.of(users, users.size() == pageSize ? users.get(users.size() - 1).getId() : null);
+    }
+
+    public ResponseEntity<AdminResponse> deleteUser(Long userId, User user) {
+        if (userId.equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(AdminResponse.Rejected.rejected("Admins cannot delete their own account"));
+        }
+        if (!userAdminService.deleteUser(userId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(AdminResponse.Rejected.notFound("User not found"));
+        }
+        auditLog.record(AuditEvent.Type.ADMIN_ACTION, user.getUsername(), null, "deleteUser " + userId);
+        return ResponseEntity.ok(AdminResponse.UserDeleted.of(userId, user.getUsername()));
+    }
+
+    public ResponseEntity<AdminResponse> setEnabled(Long userId, boolean enabled, User user) {
+        if (!enabled && userId.equals(user.getId())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(AdminResponse.Rejected.rejected("Admins cannot disable their own account"));
+        }
+        Optional<UserSummary> updated = userAdminService.setEnabled(userId, enabled);
+        if (updated.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(AdminResponse.Rejected.notFound("User not found"));
+        }
+        auditLog.record(AuditEvent.Type.ADMIN_ACTION, user.getUsername(), null,
+                        (enabled ? "enableUser " : "disableUser ") + userId);
+        return ResponseEntity.ok(AdminResponse.UserUpdated.of(enabled ? "User enabled" : "User disabled",
+                                                              updated.get(), user.getUsername()));
+    }
+
+    public ResponseEntity<AdminResponse> importUsers(InputStream input, String contentType, long skip, User user) {
+        UserImportService.Format format = UserImportService.Format.forContentType(contentType);
+        if (format == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(AdminResponse.Rejected.rejected("Send text/csv or application/x-ndjson"));
+        }
+        UserImportResult result;
+        try {
+            result = userImportService.importUsers(input, format, skip);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(AdminResponse.Rejected.rejected(e.getMessage()));
+        }
+        auditLog.record(AuditEvent.Type.ADMIN_ACTION, user.getUsername(), null,
+                        "importUsers " + result.getImported() + " imported, checkpoint " + result.getCheckpoint());
+        return ResponseEntity.status(result.isCompleted() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(AdminResponse.UsersImported.of(result, user.getUsername()));
+    }
+}
@@ -0,0 +1,218 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.AuditEvent;
+import com.demo.javasecurity.util.MappedSegmentLog;
+import com.demo.javasecurity.util.MpscRingBuffer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Security audit trail. {@link #record} only enqueues the event on a
+ * lock-free ring buffer and never blocks; when the buffer is full the event
+ * is dropped and counted. A single writer thread drains the buffer in
+ * batches, encodes each event as one NDJSON line and appends it to
+ * memory-mapped segment files under {@code audit.directory}, which admins can
+ * query through {@link #query}.
+ */
+@Service
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    public static final int MAX_QUERY_LIMIT = 1000;
+
+    private static final TypeReference<LinkedHashMap<String, Object>> RECORD_TYPE = new TypeReference<>() {
+    };
+
+    // How long the writer sleeps when the buffer is empty
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.directory:${java.io.tmpdir}/java-security-demo/audit}")
+    private Path directory;
+
+    @Value("${audit.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${audit.max-segments:8}")
+    private int maxSegments;
+
+    @Value("${audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${audit.sync-interval:1s}")
+    private Duration syncInterval;
+
+    private MpscRingBuffer<AuditEvent> buffer;
+
+    private MappedSegmentLog log;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long written;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            logger.info("Audit log disabled");
+            return;
+        }
+        buffer = new MpscRingBuffer<>(bufferSize);
+        log = new MappedSegmentLog(directory, "audit", Math.toIntExact(segmentSize.toBytes()), maxSegments);
+
+        FunctionCounter.builder("audit.events.dropped", dropped, LongAdder::sum)
+                .description("Audit events lost because the buffer was full or the write failed")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.size", buffer, MpscRingBuffer::size)
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Audit log writing to {} ({} segments of {})", directory.toAbsolutePath(), maxSegments,
+                    segmentSize);
+    }
+
+    public void record(AuditEvent.Type type, String username, String clientIp, String detail) {
+        if (enabled && !buffer.offer(new AuditEvent(System.currentTimeMillis(), type, username, clientIp, detail))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Most recent events first, optionally restricted to one type and/or user.
+     */
+    public List<Map<String, Object>> query(int limit, AuditEvent.Type type, String username) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        if (!enabled) {
+            return events;
+        }
+        int max = Math.max(1, Math.min(limit, MAX_QUERY_LIMIT));
+        String typeName = type != null ? type.name() : null;
+        log.readBackwards(line -> {
+            Map<String, Object> event;
+            try {
+                event = objectMapper.readValue(line, RECORD_TYPE);
+            } catch (IOException e) {
+                return true;
+            }
+            if ((typeName == null || typeName.equals(event.get("type")))
+                    && (username == null || username.equals(event.get("user")))) {
+                events.add(event);
+            }
+            return events.size() < max;
+        });
+        return events;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        if (enabled) {
+            stats.put("written", written);
+            stats.put("dropped", dropped.sum());
+            stats.put("pending", buffer.size());
+            stats.put("segments", log.segmentCount());
+            stats.put("bytes", log.size());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        log.close();
+    }
+
+    private void writeLoop() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        long syncNanos = syncInterval.toNanos();
+        long lastSync = System.nanoTime();
+        boolean dirty = false;
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drain(event -> append(event, out), batchSize);
+            dirty |= drained > 0;
+            if (dirty && System.nanoTime() - lastSync >= syncNanos) {
+                log.force();
+                lastSync = System.nanoTime();
+                dirty = false;
+            }
+            if (drained == 0 && running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void append(AuditEvent event, ByteArrayOutputStream out) {
+        out.reset();
+        try {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeStringField("time", Instant.ofEpochMilli(event.getTimestamp()).toString());
+                generator.writeStringField("type", event.getType().name());
+                writeOptional(generator, "user", event.getUsername());
+                writeOptional(generator, "ip", event.getClientIp());
+                writeOptional(generator, "detail", event.getDetail());
+                generator.writeEndObject();
+            }
+            out.write('\n');
+            log.append(out.toByteArray(), 0, out.size());
+            written++;
+        } catch (IOException | RuntimeException e) {
+            dropped.increment();
+            logger.error("Cannot write audit event {}: {}", event.getType(), e.getMessage());
+        }
+    }
+
+    private static void writeOptional(JsonGenerator generator, String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+}
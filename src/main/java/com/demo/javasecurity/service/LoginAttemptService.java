@@ -0,0 +1,103 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.AuditEvent;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.demo.javasecurity.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Progressive account lockout. After {@code max-failures} consecutive bad
+ * passwords the account is locked for {@code base-duration}; every further
+ * failure once the lock has expired doubles the lock, up to
+ * {@code max-duration}. A locked account is rejected by the authentication
+ * provider before the password is hashed; tokens it already holds stay valid.
+ * The counter is incremented in SQL, so concurrent failures are all counted.
+ * Those bulk updates skip the JPA callbacks, so locking and unlocking publish
+ * their {@link UserChangedEvent} here: the user cache, the replica lag guard
+ * and the other instances must see a lock before the next sign-in attempt.
+ */
+@Service
+public class LoginAttemptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    // Caps the doubling well before the shift could overflow
+    private static final int MAX_DOUBLINGS = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${security.login.lockout.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.login.lockout.max-failures:5}")
+    private int maxFailures;
+
+    @Value("${security.login.lockout.base-duration:1m}")
+    private Duration baseDuration;
+
+    @Value("${security.login.lockout.max-duration:1h}")
+    private Duration maxDuration;
+
+    @Transactional
+    public void loginFailed(String username) {
+        activityMetrics.recordSignIn(false);
+        if (!enabled) {
+            return;
+        }
+        if (userRepository.incrementFailedAttempts(username) == 0) {
+            return;
+        }
+        // Our increment holds the row lock until commit, so this reads our own count
+        int failures = userRepository.findFailedAttemptsByUsername(username).orElse(0);
+        if (failures >= maxFailures) {
+            Duration lock = lockDuration(failures - maxFailures);
+            userRepository.lockUntil(username, Instant.now().plus(lock));
+            publishUpdated(userRepository.findIdByUsername(username).orElse(null), username);
+            logger.warn("Locked user {} for {} after {} failed sign-ins", username, lock, failures);
+            auditLog.record(AuditEvent.Type.ACCOUNT_LOCKED, username, null,
+                            "locked for " + lock + " after " + failures + " failures");
+        }
+    }
+
+    @Transactional
+    public void loginSucceeded(User principal) {
+        activityMetrics.recordSignIn(true);
+        // Nothing to write for the common case of a clean record
+        if (principal.getFailedAttempts() == 0 && principal.getLockedUntil() == null) {
+            return;
+        }
+        if (userRepository.resetFailedAttempts(principal.getId()) > 0) {
+            publishUpdated(principal.getId(), principal.getUsername());
+        }
+    }
+
+    // Its listeners are @TransactionalEventListeners, so they see it once the update has committed
+    private void publishUpdated(Long userId, String username) {
+        eventPublisher.publishEvent(new UserChangedEvent(userId, username, UserChangedEvent.Type.UPDATED));
+    }
+
+    private Duration lockDuration(int doublings) {
+        Duration lock = baseDuration.multipliedBy(1L << Math.min(doublings, MAX_DOUBLINGS));
+        return lock.compareTo(maxDuration) > 0 ? maxDuration : lock;
+    }
+}
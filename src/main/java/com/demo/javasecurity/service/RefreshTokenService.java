@@ -0,0 +1,157 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.AuditEvent;
+import com.demo.javasecurity.model.RefreshToken;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.RefreshTokenRepository;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.security.InvalidRefreshTokenException;
+import com.demo.javasecurity.security.TokenAccountStatusChecker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and rotates opaque refresh tokens. A refresh token can be exchanged
+ * exactly once; the exchange returns a new token in the same family. Presenting
+ * a token that was already exchanged means it leaked, so the whole family is
+ * revoked and both the attacker and the legitimate client must sign in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int FAMILY_BYTES = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final TokenAccountStatusChecker accountStatusChecker = new TokenAccountStatusChecker();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityMetrics activityMetrics;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    /**
+     * Result of a successful exchange: the user to issue an access token for
+     * and the refresh token that replaces the one presented.
+     */
+    public static class Rotation {
+
+        private final User user;
+        private final String refreshToken;
+
+        Rotation(User user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+
+    /**
+     * Starts a new token family for a user who just signed in.
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user.getId(), randomToken(FAMILY_BYTES));
+    }
+
+    // Reuse revokes the family; that delete must survive the exception
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String token) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+
+        Instant now = Instant.now();
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            int revoked = refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            logger.warn("Refresh token reuse for user id {}, revoked {} tokens of the family",
+                        current.getUserId(), revoked);
+            auditLog.record(AuditEvent.Type.REFRESH_TOKEN_REUSE, null, null,
+                            "user id " + current.getUserId() + ", revoked " + revoked + " tokens");
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        User user = userRepository.findById(current.getUserId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+        accountStatusChecker.check(user);
+
+        Rotation rotation = new Rotation(user, issue(user.getId(), current.getFamilyId()));
+        activityMetrics.recordTokenRefresh();
+        return rotation;
+    }
+
+    /**
+     * Revokes every refresh token of a user, e.g. when the account is removed.
+     */
+    @Transactional
+    public int revokeAll(Long userId) {
+        return refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            logger.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private String issue(Long userId, String familyId) {
+        String token = randomToken(TOKEN_BYTES);
+        refreshTokenRepository.save(new RefreshToken(hash(token), familyId, userId,
+                                                     Instant.now().plusMillis(refreshExpirationMs)));
+        return token;
+    }
+
+    private String randomToken(int bytes) {
+        byte[] value = new byte[bytes];
+        random.nextBytes(value);
+        return ENCODER.encodeToString(value);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
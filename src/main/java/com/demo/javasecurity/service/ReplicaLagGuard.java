@@ -0,0 +1,77 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.config.ReplicaRoutingDataSource;
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers users changed within the last {@code datasource.replica.max-lag}
+ * so that reads of them go to the primary until the replica has caught up.
+ * Without a replica every read goes to the single database anyway and this
+ * does nothing.
+ */
+@Service
+public class ReplicaLagGuard {
+
+    @Value("${datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${datasource.replica.max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${datasource.replica.max-tracked-users:100000}")
+    private long maxTrackedUsers;
+
+    private Cache<String, Boolean> recentlyChanged;
+
+    // Set by changes that do not name a user; until then every read uses the primary
+    private volatile long allChangedUntilNanos;
+
+    @PostConstruct
+    void init() {
+        if (StringUtils.hasText(replicaUrl)) {
+            allChangedUntilNanos = System.nanoTime();
+            recentlyChanged = Caffeine.newBuilder()
+                    .maximumSize(maxTrackedUsers)
+                    .expireAfterWrite(maxLag)
+                    .build();
+        }
+    }
+
+    /**
+     * Runs a read of {@code username}'s row, on the primary if the user was
+     * changed recently.
+     */
+    public <T> T read(String username, Supplier<T> query) {
+        if (recentlyChanged != null && (recentlyChanged.getIfPresent(username) != null
+                || System.nanoTime() - allChangedUntilNanos < 0)) {
+            return ReplicaRoutingDataSource.onPrimary(query);
+        }
+        return query.get();
+    }
+
+    // Runs before UserDetailsCache drops the entry, so the reload cannot hit a stale replica
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (recentlyChanged == null) {
+            return;
+        }
+        if (event.getUsername() != null) {
+            recentlyChanged.put(event.getUsername(), Boolean.TRUE);
+        } else {
+            allChangedUntilNanos = System.nanoTime() + maxLag.toNanos();
+        }
+    }
+}
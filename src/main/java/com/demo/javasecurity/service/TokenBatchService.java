@@ -0,0 +1,96 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.dto.IssuedToken;
+import com.demo.javasecurity.dto.TokenCheckResult;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.security.RejectionReason;
+import com.demo.javasecurity.security.TokenRevocationList;
+import com.demo.javasecurity.util.JwtUtil;
+import com.demo.javasecurity.util.JwtVerificationResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies or issues many tokens in one call for batch jobs. The per-token
+ * work is spread across cores by {@link JwtUtil}; results keep request order.
+ */
+@Service
+public class TokenBatchService {
+
+    @Autowired
+    private JwtUtil jwtUtils;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Same checks as a request carrying the token: signature, claims, expiry
+     * and revocation. Batch lookups bypass the verified-token cache so they
+     * cannot evict entries used by live traffic.
+     */
+    public List<TokenCheckResult> verify(List<String> tokens) {
+        List<JwtVerificationResult> results = jwtUtils.verifyJwtTokens(tokens);
+        List<TokenCheckResult> checks = new ArrayList<>(results.size());
+        for (JwtVerificationResult result : results) {
+            if (result.isValid() && tokenRevocationList.isRevoked(result.getTokenId())) {
+                checks.add(TokenCheckResult.rejected(RejectionReason.REVOKED_TOKEN.name()));
+            } else {
+                checks.add(TokenCheckResult.of(result));
+            }
+        }
+        return checks;
+    }
+
+    /**
+     * Issues access tokens for existing, enabled users with a single user query.
+     * A sign-in lockout does not block issuance.
+     */
+    @Transactional(readOnly = true)
+    public List<IssuedToken> issue(List<String> usernames) {
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+            users.put(user.getUsername(), user);
+        }
+
+        List<User> eligible = new ArrayList<>();
+        for (String username : usernames) {
+            User user = users.get(username);
+            if (user != null && user.isEnabled()) {
+                eligible.add(user);
+            }
+        }
+        List<String> tokens = jwtUtils.generateJwtTokens(eligible);
+
+        List<IssuedToken> issued = new ArrayList<>(usernames.size());
+        int next = 0;
+        for (String username : usernames) {
+            User user = users.get(username);
+            if (user == null) {
+                issued.add(new IssuedToken(username, null, "User not found"));
+            } else if (!user.isEnabled()) {
+                issued.add(new IssuedToken(username, null, "User is disabled"));
+            } else {
+                issued.add(new IssuedToken(username, tokens.get(next++), null));
+            }
+        }
+        return issued;
+    }
+}
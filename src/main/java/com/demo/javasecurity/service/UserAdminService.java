@@ -0,0 +1,106 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.dto.UserSummary;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * User management for the admin endpoints. Listing pages by id (keyset), so
+ * the cost of a page does not grow with its position in the table. Changes go
+ * through JPA, so the user details cache drops the entry on commit, and the
+ * user's refresh tokens are revoked with them.
+ */
+@Service
+public class UserAdminService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${admin.users.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${admin.users.max-page-size:1000}")
+    private int maxPageSize;
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Up to {@code limit} users with an id greater than {@code afterId}, in id order.
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> listUsers(long afterId, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(UserSummary::of)
+                .toList();
+    }
+
+    /**
+     * Passes every user after {@code afterId} to the sink while reading them
+     * through a database cursor. Each entity is detached once written, so the
+     * persistence context does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamUsers(long afterId, Consumer<UserSummary> sink) {
+        try (Stream<User> users = userRepository.streamByIdGreaterThan(afterId)) {
+            users.forEach(user -> {
+                sink.accept(UserSummary.of(user));
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    /**
+     * Returns false if there is no such user.
+     */
+    @Transactional
+    public boolean deleteUser(Long userId) {
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isEmpty()) {
+            return false;
+        }
+        refreshTokenService.revokeAll(userId);
+        userRepository.delete(user.get());
+        return true;
+    }
+
+    /**
+     * Enables or disables the user; disabling also revokes its refresh tokens.
+     */
+    @Transactional
+    public Optional<UserSummary> setEnabled(Long userId, boolean enabled) {
+        return userRepository.findById(userId).map(user -> {
+            user.setEnabled(enabled);
+            if (!enabled) {
+                refreshTokenService.revokeAll(userId);
+            }
+            return UserSummary.of(user);
+        });
+    }
+}
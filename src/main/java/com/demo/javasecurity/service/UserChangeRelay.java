@@ -0,0 +1,91 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.security.AuthStateChange;
+import com.demo.javasecurity.security.SharedAuthState;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Broadcasts committed user changes to the other instances through
+ * {@link SharedAuthState} and republishes theirs here as remote
+ * {@link UserChangedEvent}s, so every listener (user cache, replica lag guard,
+ * metrics) sees changes made anywhere in the cluster. Hibernate's
+ * second-level and query caches (prod profile) are local too, so their copies
+ * of the user are evicted first. New users are not relayed: no instance has
+ * anything cached for them but a miss, which is confirmed against the
+ * database before it is believed ({@link UserDetailsServiceImpl}).
+ */
+@Service
+public class UserChangeRelay implements SharedAuthState.Listener {
+
+    @Autowired
+    private SharedAuthState sharedAuthState;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void init() {
+        sharedAuthState.subscribe(this);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isRemote() && event.getType() != UserChangedEvent.Type.CREATED) {
+            sharedAuthState.publish(AuthStateChange.userChanged(changeType(event.getType()), event.getUserId(),
+                                                                event.getUsername()));
+        }
+    }
+
+    @Override
+    public void onChange(AuthStateChange change) {
+        UserChangedEvent.Type type = switch (change.getType()) {
+            case USER_CREATED -> UserChangedEvent.Type.CREATED;
+            case USER_UPDATED -> UserChangedEvent.Type.UPDATED;
+            case USER_DELETED -> UserChangedEvent.Type.DELETED;
+            default -> null;
+        };
+        if (type != null) {
+            evictCachedUsers(change.getUserId());
+            eventPublisher.publishEvent(new UserChangedEvent(change.getUserId(), change.getKey(), type, true));
+        }
+    }
+
+    // Any user may have changed meanwhile
+    @Override
+    public void onResync() {
+        evictCachedUsers(null);
+        eventPublisher.publishEvent(new UserChangedEvent(null, null, UserChangedEvent.Type.UPDATED, true));
+    }
+
+    // No-ops when the second-level cache is disabled
+    private void evictCachedUsers(Long userId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        if (userId != null) {
+            cache.evictEntityData(User.class, userId);
+        } else {
+            cache.evictEntityData(User.class);
+        }
+        cache.evictQueryRegion(UserRepository.QUERY_REGION);
+    }
+
+    private static AuthStateChange.Type changeType(UserChangedEvent.Type type) {
+        return switch (type) {
+            case CREATED -> AuthStateChange.Type.USER_CREATED;
+            case UPDATED -> AuthStateChange.Type.USER_UPDATED;
+            case DELETED -> AuthStateChange.Type.USER_DELETED;
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache in front of {@link UserDetailsServiceImpl} used by the JWT filter.
+ * It holds the credential-free principals of
+ * {@link UserDetailsServiceImpl#loadPrincipalByUsername}, never password hashes.
+ * Eviction is Caffeine's W-TinyLFU; concurrent misses for the same username
+ * share a single database load. Entries are dropped as soon as a change to the
+ * user is committed, so disabling a user takes effect on the next request.
+ */
+@Service
+public class UserDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Value("${security.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${security.user-cache.ttl:60s}")
+    private Duration ttl;
+
+    private Cache<String, UserDetails> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        logger.info("User details cache enabled={}, maximumSize={}, ttl={}", enabled, maximumSize, ttl);
+    }
+
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!enabled) {
+            return userDetailsService.loadPrincipalByUsername(username);
+        }
+        return cache.get(username, userDetailsService::loadPrincipalByUsername);
+    }
+
+    /**
+     * Returns the cached entry without loading it, or null on a miss.
+     */
+    public UserDetails getIfPresent(String username) {
+        return enabled ? cache.getIfPresent(username) : null;
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Runs after commit so a concurrent miss cannot re-cache the pre-update row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // Misses are not cached, so a new user has no entry to drop
+        if (event.getType() == UserChangedEvent.Type.CREATED) {
+            return;
+        }
+        if (event.getUsername() != null) {
+            invalidate(event.getUsername());
+        } else {
+            invalidateAll();
+        }
+    }
+}
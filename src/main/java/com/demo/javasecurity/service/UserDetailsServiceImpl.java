@@ -2,25 +2,74 @@ package com.demo.javasecurity.service;
 
 import com.demo.javasecurity.model.User;
 import com.demo.javasecurity.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Read-only, so it is served by the replica when one is configured
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = find(username, () -> userRepository.findByUsername(username))
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
+
+        return user;
+    }
+
+    /**
+     * Loads the user for a request that already proved its identity with a
+     * token: authorization columns only, with an empty password.
+     */
+    @Transactional(readOnly = true)
+    public UserDetails loadPrincipalByUsername(String username) throws UsernameNotFoundException {
+        return find(username, () -> userRepository.findPrincipalByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
+    }
 
+    // The query cache keeps misses too, and users created on another instance are not relayed
+    // (UserChangeRelay), so a miss is confirmed with an uncached query before it is believed
+    private Optional<User> find(String username, Supplier<Optional<User>> query) {
+        Optional<User> user = replicaLagGuard.read(username, query);
+        if (user.isEmpty() && replicaLagGuard.read(username, () -> userRepository.existsByUsername(username))) {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(UserRepository.QUERY_REGION);
+            user = replicaLagGuard.read(username, query);
+        }
         return user;
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + userDetails.getUsername()));
+
+        user.setPassword(newPassword);
+        logger.info("Upgraded password hash for user: {}", user.getUsername());
+        return userRepository.save(user);
+    }
 }
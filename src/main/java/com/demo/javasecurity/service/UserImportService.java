@@ -0,0 +1,438 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.config.PasswordEncoderConfig;
+import com.demo.javasecurity.dto.UserImportRecord;
+import com.demo.javasecurity.dto.UserImportResult;
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.demo.javasecurity.model.UserEntityListener;
+import com.demo.javasecurity.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user import from CSV or NDJSON. The input is read sequentially and cut
+ * into chunks; chunks are parsed and their passwords hashed in parallel on a
+ * bounded pool, then committed in input order, one transaction per chunk, so
+ * the inserts go out as JDBC batches. {@link UserImportResult#getCheckpoint()}
+ * only advances past committed chunks, and usernames that already exist are
+ * skipped, so an interrupted import can be resumed or simply run again.
+ * Each committed chunk publishes one bulk {@link UserChangedEvent} rather
+ * than one per user.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int PROGRESS_LOG_CHUNKS = 50;
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    public enum Format {
+        CSV,
+        NDJSON;
+
+        /**
+         * Format for a request content type, or null if it is not supported.
+         */
+        public static Format forContentType(String contentType) {
+            if (contentType == null) {
+                return null;
+            }
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            return null;
+        }
+
+        /**
+         * Format for a file name: .csv, or .ndjson / .jsonl.
+         */
+        public static Format forFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            return null;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Records per chunk, i.e. per transaction
+    @Value("${user-import.batch-size:1000}")
+    private int batchSize;
+
+    // 0 = one hashing thread per CPU
+    @Value("${user-import.hash-threads:0}")
+    private int hashThreads;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Imports every record after the first {@code skip} data records. Only one
+     * import runs at a time.
+     *
+     * @throws IllegalStateException if another import is running
+     */
+    public UserImportResult importUsers(InputStream input, Format format, long skip) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A user import is already running");
+        }
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new ImportThreadFactory());
+        try {
+            // At most two chunks per thread are parsed ahead of the commits, which bounds memory
+            return run(input, format, skip, pool, threads * 2);
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    private UserImportResult run(InputStream input, Format format, long skip, ExecutorService pool, int maxInFlight) {
+        long startedAt = System.nanoTime();
+        UserImportResult result = new UserImportResult(format.name(), skip);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+
+        logger.info("User import started ({}, skipping {} records)", format, skip);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+            String[] columns = null;
+            long record = 0;
+            List<String> lines = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = csvColumns(line);
+                    continue;
+                }
+                if (++record <= skip) {
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == batchSize) {
+                    submit(pool, inFlight, record, lines, format, columns);
+                    lines = new ArrayList<>(batchSize);
+                    if (inFlight.size() >= maxInFlight) {
+                        commit(inFlight.poll().get(), transaction, result);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(pool, inFlight, record, lines, format, columns);
+            }
+            while (!inFlight.isEmpty()) {
+                commit(inFlight.poll().get(), transaction, result);
+            }
+            result.setCompleted(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setFailure("Interrupted");
+        } catch (ExecutionException e) {
+            result.setFailure(e.getCause().getMessage());
+        } catch (IOException | RuntimeException e) {
+            result.setFailure(e.getMessage());
+        } finally {
+            inFlight.forEach(chunk -> chunk.cancel(true));
+            result.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+
+        if (result.isCompleted()) {
+            logger.info("User import finished: {} imported, {} existing, {} rejected in {} ms",
+                        result.getImported(), result.getExisting(), result.getRejected(), result.getElapsedMs());
+        } else {
+            logger.error("User import failed after checkpoint {}: {}", result.getCheckpoint(), result.getFailure());
+        }
+        return result;
+    }
+
+    private void submit(ExecutorService pool, Deque<Future<Chunk>> inFlight, long lastRecord, List<String> lines,
+                        Format format, String[] columns) {
+        long firstRecord = lastRecord - lines.size() + 1;
+        inFlight.add(pool.submit(() -> prepare(firstRecord, lines, format, columns)));
+    }
+
+    // Runs on the import pool. Usernames that already exist are dropped before the
+    // expensive hashing, so re-running an import over committed records is cheap.
+    private Chunk prepare(long firstRecord, List<String> lines, Format format, String[] columns) {
+        Chunk chunk = new Chunk(firstRecord + lines.size() - 1, lines.size());
+        List<UserImportRecord> records = new ArrayList<>(lines.size());
+        List<Long> recordNumbers = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                records.add(format == Format.CSV
+                        ? csvRecord(columns, lines.get(i))
+                        : objectMapper.readValue(lines.get(i), UserImportRecord.class));
+                recordNumbers.add(firstRecord + i);
+            } catch (IOException | IllegalArgumentException e) {
+                chunk.errors.add(new UserImportResult.RecordError(firstRecord + i, e.getMessage()));
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        List<String> usernames = records.stream()
+                .map(UserImportRecord::getUsername)
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .toList();
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+            existing.add(user.getUsername());
+        }
+
+        for (int i = 0; i < records.size(); i++) {
+            UserImportRecord record = records.get(i);
+            if (record.getUsername() != null && existing.contains(record.getUsername().trim())) {
+                chunk.existing++;
+                continue;
+            }
+            try {
+                chunk.users.add(toUser(record));
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add(new UserImportResult.RecordError(recordNumbers.get(i), e.getMessage()));
+            }
+        }
+        chunk.errors.sort(Comparator.comparingLong(UserImportResult.RecordError::getRecord));
+        return chunk;
+    }
+
+    private void commit(Chunk chunk, TransactionTemplate transaction, UserImportResult result) {
+        Integer inserted = transaction.execute(status -> {
+            // Checked again here: an earlier chunk or another writer may have added them since
+            Set<String> taken = new HashSet<>();
+            List<String> usernames = chunk.users.stream().map(User::getUsername).toList();
+            for (User existing : userRepository.findByUsernameIn(usernames)) {
+                taken.add(existing.getUsername());
+            }
+            List<User> fresh = new ArrayList<>(chunk.users.size());
+            for (User user : chunk.users) {
+                if (taken.add(user.getUsername())) {
+                    fresh.add(user);
+                }
+            }
+            UserEntityListener.withoutEvents(() -> userRepository.saveAllAndFlush(fresh));
+            if (!fresh.isEmpty()) {
+                // Delivered to the listeners once the chunk commits
+                eventPublisher.publishEvent(UserChangedEvent.bulk(UserChangedEvent.Type.CREATED, fresh.size()));
+            }
+            return fresh.size();
+        });
+
+        result.addImported(inserted);
+        result.addExisting(chunk.existing + chunk.users.size() - inserted);
+        result.addRejected(chunk.errors.size());
+        for (UserImportResult.RecordError error : chunk.errors) {
+            if (result.getErrors().size() >= MAX_REPORTED_ERRORS) {
+                break;
+            }
+            result.getErrors().add(error);
+        }
+        result.setCheckpoint(chunk.lastRecord);
+
+        if ((result.getCheckpoint() - result.getSkipped()) % ((long) batchSize * PROGRESS_LOG_CHUNKS) == 0) {
+            logger.info("User import progress: {} imported, checkpoint {}", result.getImported(), result.getCheckpoint());
+        }
+    }
+
+    private User toUser(UserImportRecord record) {
+        if (!StringUtils.hasText(record.getUsername())) {
+            throw new IllegalArgumentException("Missing username");
+        }
+        Role role = Role.USER;
+        if (StringUtils.hasText(record.getRole())) {
+            try {
+                role = Role.valueOf(record.getRole().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown role: " + record.getRole());
+            }
+        }
+
+        String password;
+        if (StringUtils.hasText(record.getPasswordHash())) {
+            password = checkPasswordHash(record.getPasswordHash().trim());
+        } else if (StringUtils.hasLength(record.getPassword())) {
+            password = passwordEncoder.encode(record.getPassword());
+        } else {
+            throw new IllegalArgumentException("Missing password");
+        }
+
+        User user = new User(record.getUsername().trim(), password, role);
+        user.setEnabled(record.getEnabled() == null || record.getEnabled());
+        return user;
+    }
+
+    // Stored as is, so it must be a hash the DelegatingPasswordEncoder can verify: an {id}
+    // prefix of one of its encoders, or a legacy BCrypt hash without one
+    private static String checkPasswordHash(String hash) {
+        if (BCRYPT_HASH.matcher(hash).matches()) {
+            return hash;
+        }
+        int end = hash.indexOf('}');
+        if (!hash.startsWith("{") || end < 0) {
+            throw new IllegalArgumentException("passwordHash must start with an {id} prefix such as {bcrypt}");
+        }
+        String id = hash.substring(1, end);
+        if (!PasswordEncoderConfig.ENCODER_IDS.contains(id)) {
+            throw new IllegalArgumentException("Unsupported passwordHash prefix {" + id + "}, expected one of "
+                                               + PasswordEncoderConfig.ENCODER_IDS);
+        }
+        String encoded = hash.substring(end + 1);
+        if (encoded.isEmpty() || "bcrypt".equals(id) && !BCRYPT_HASH.matcher(encoded).matches()) {
+            throw new IllegalArgumentException("passwordHash is not a valid {" + id + "} hash");
+        }
+        return hash;
+    }
+
+    private static String[] csvColumns(String header) {
+        // Drop a UTF-8 byte order mark left by spreadsheet exports
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = splitCsv(header);
+        String[] columns = new String[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.get(i).trim().toLowerCase(Locale.ROOT);
+        }
+        if (!List.of(columns).contains("username")) {
+            throw new IllegalArgumentException("CSV header must have a 'username' column");
+        }
+        return columns;
+    }
+
+    private static UserImportRecord csvRecord(String[] columns, String line) {
+        List<String> fields = splitCsv(line);
+        UserImportRecord record = new UserImportRecord();
+        for (int i = 0; i < Math.min(columns.length, fields.size()); i++) {
+            String value = fields.get(i);
+            switch (columns[i]) {
+                case "username" -> record.setUsername(value);
+                case "password" -> record.setPassword(value);
+                case "passwordhash" -> record.setPasswordHash(value);
+                case "role" -> record.setRole(value);
+                case "enabled" -> record.setEnabled(value.isBlank() ? null : Boolean.valueOf(value.trim()));
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        return record;
+    }
+
+    // RFC 4180 fields on a single line: commas separate, double quotes enclose, "" escapes a quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Chunk {
+
+        private final long lastRecord;
+        private final List<User> users;
+        private final List<UserImportResult.RecordError> errors = new ArrayList<>();
+        private int existing;
+
+        private Chunk(long lastRecord, int size) {
+            this.lastRecord = lastRecord;
+            this.users = new ArrayList<>(size);
+        }
+    }
+
+    private static final class ImportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "user-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.demo.javasecurity.util;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.util.JwtVerificationResult.FailureReason;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary access token, {@code ct1.<base64url(claims || HMAC-SHA256(claims))>},
+ * for internal service-to-service traffic. The claims have a fixed layout, so
+ * verification is one MAC plus reads at known offsets, with no JSON:
+ * <pre>
+ * offset  size  field
+ *      0     1  version (1)
+ *      1     8  issued at, epoch seconds
+ *      9     8  expires at, epoch seconds
+ *     17    16  token id
+ *     33     8  user id, 0 if absent
+ *     41     1  role ordinal + 1, 0 if absent (new roles must be appended)
+ *     42     2  subject length n
+ *     44     n  subject, UTF-8
+ * </pre>
+ * Tokens are always signed with a key derived from {@code jwt.secret}, whatever
+ * {@code jwt.algorithm} is, so only services holding the secret can verify them.
+ */
+public final class CompactTokenCodec {
+
+    public static final String PREFIX = "ct1.";
+
+    private static final byte VERSION = 1;
+
+    private static final int HEADER_SIZE = 44;
+
+    private static final int MAC_SIZE = 32;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private static final Role[] ROLES = Role.values();
+
+    // Keyed once; cloning skips the key schedule on every call
+    private final Mac prototype;
+
+    public CompactTokenCodec(byte[] secret) {
+        try {
+            // Separate key so a compact MAC can never be replayed as an HS512 signature or vice versa
+            Mac derivation = Mac.getInstance(MAC_ALGORITHM);
+            derivation.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+            byte[] key = derivation.doFinal("compact-token-v1".getBytes(StandardCharsets.US_ASCII));
+            prototype = Mac.getInstance(MAC_ALGORITHM);
+            prototype.init(new SecretKeySpec(key, MAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize compact token MAC", e);
+        }
+    }
+
+    public static boolean isCompact(String token) {
+        return token.startsWith(PREFIX);
+    }
+
+    public String encode(String subject, byte[] tokenId, Instant issuedAt, Instant expiresAt, Long userId,
+                         Role role) {
+        byte[] name = subject.getBytes(StandardCharsets.UTF_8);
+        if (tokenId.length != 16 || name.length > 0xFFFF) {
+            throw new IllegalArgumentException("Token id must be 16 bytes and the subject at most 65535");
+        }
+        int claimsSize = HEADER_SIZE + name.length;
+        ByteBuffer buffer = ByteBuffer.allocate(claimsSize + MAC_SIZE)
+                .put(VERSION)
+                .putLong(issuedAt.getEpochSecond())
+                .putLong(expiresAt.getEpochSecond())
+                .put(tokenId)
+                .putLong(userId != null ? userId : 0)
+                .put((byte) (role != null ? role.ordinal() + 1 : 0))
+                .putShort((short) name.length)
+                .put(name);
+        Mac mac = mac();
+        mac.update(buffer.array(), 0, claimsSize);
+        try {
+            mac.doFinal(buffer.array(), claimsSize);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign compact token", e);
+        }
+        return PREFIX + BASE64_URL.encodeToString(buffer.array());
+    }
+
+    public JwtVerificationResult verify(String token, Instant now) {
+        byte[] bytes;
+        try {
+            bytes = BASE64_URL_DECODER.decode(token.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return JwtVerificationResult.failure(FailureReason.MALFORMED, "Compact token is not valid base64url");
+        }
+        int claimsSize = bytes.length - MAC_SIZE;
+        if (claimsSize < HEADER_SIZE || bytes[0] != VERSION) {
+            return JwtVerificationResult.failure(FailureReason.MALFORMED, "Unsupported compact token layout");
+        }
+
+        Mac mac = mac();
+        mac.update(bytes, 0, claimsSize);
+        byte[] expected = mac.doFinal();
+        if (!macMatches(expected, bytes, claimsSize)) {
+            return JwtVerificationResult.failure(FailureReason.INVALID_SIGNATURE, "Compact token MAC does not match");
+        }
+
+        ByteBuffer claims = ByteBuffer.wrap(bytes, 0, claimsSize);
+        claims.position(1);
+        Instant issuedAt = Instant.ofEpochSecond(claims.getLong());
+        Instant expiresAt = Instant.ofEpochSecond(claims.getLong());
+        byte[] tokenId = new byte[16];
+        claims.get(tokenId);
+        long userId = claims.getLong();
+        int role = claims.get() & 0xFF;
+        int nameLength = claims.getShort() & 0xFFFF;
+        if (nameLength != claimsSize - HEADER_SIZE || role > ROLES.length) {
+            return JwtVerificationResult.failure(FailureReason.MALFORMED, "Unsupported compact token layout");
+        }
+        if (!expiresAt.isAfter(now)) {
+            return JwtVerificationResult.failure(FailureReason.EXPIRED, "The Token has expired on " + expiresAt + ".");
+        }
+        if (issuedAt.isAfter(now)) {
+            return JwtVerificationResult.failure(FailureReason.INVALID_CLAIM,
+                                                 "The Token can't be used before " + issuedAt + ".");
+        }
+
+        Map<String, Object> privateClaims = new HashMap<>(4);
+        if (userId != 0) {
+            privateClaims.put(JwtUtil.USER_ID_CLAIM, userId);
+        }
+        if (role != 0) {
+            privateClaims.put(JwtUtil.ROLE_CLAIM, ROLES[role - 1].name());
+        }
+        String subject = new String(bytes, HEADER_SIZE, nameLength, StandardCharsets.UTF_8);
+        return JwtVerificationResult.success(subject, BASE64_URL.encodeToString(tokenId), issuedAt, expiresAt,
+                                             privateClaims);
+    }
+
+    // Constant time, like MessageDigest.isEqual, without copying the MAC out of the token
+    private static boolean macMatches(byte[] expected, byte[] token, int offset) {
+        int difference = 0;
+        for (int i = 0; i < MAC_SIZE; i++) {
+            difference |= expected[i] ^ token[offset + i];
+        }
+        return difference == 0;
+    }
+
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("MAC provider does not support cloning", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.javasecurity.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit string hash shared by the probabilistic structures in this package.
+ */
+final class Hash64 {
+
+    private Hash64() {
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur3 mix
+    static long of(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
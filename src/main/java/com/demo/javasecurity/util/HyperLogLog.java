@@ -0,0 +1,82 @@
+package com.demo.javasecurity.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread-safe HyperLogLog cardinality sketch over strings. Each register keeps
+ * the largest leading-zero rank seen for its bucket and is raised with CAS, so
+ * concurrent adds need no lock. Sketches of equal precision can be merged by
+ * taking the register-wise maximum.
+ */
+public final class HyperLogLog {
+
+    private final int precision;
+    private final AtomicIntegerArray registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new AtomicIntegerArray(1 << precision);
+    }
+
+    public void add(String value) {
+        offer(Hash64.of(value));
+    }
+
+    public void offer(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the first set bit in the remaining bits; the sentinel caps it
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        int current;
+        do {
+            current = registers.get(index);
+            if (current >= rank) {
+                return;
+            }
+        } while (!registers.compareAndSet(index, current, rank));
+    }
+
+    public int registerCount() {
+        return registers.length();
+    }
+
+    /**
+     * Raises {@code target} to the register-wise maximum of itself and this
+     * sketch. {@code target} must have {@link #registerCount()} entries.
+     */
+    public void mergeInto(int[] target) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = Math.max(target[i], registers.get(i));
+        }
+    }
+
+    public long estimate() {
+        int[] snapshot = new int[registers.length()];
+        mergeInto(snapshot);
+        return estimate(snapshot);
+    }
+
+    /**
+     * Cardinality estimate for a register array, with linear counting for the
+     * small range where the raw estimate is biased.
+     */
+    public static long estimate(int[] registers) {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (int register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double raw = alpha * m * m / sum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+}
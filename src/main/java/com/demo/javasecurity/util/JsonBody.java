@@ -0,0 +1,35 @@
+package com.demo.javasecurity.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body serialized once up front. Endpoints that always return the
+ * same payload hand out these bytes instead of rebuilding and re-serializing
+ * a map on every request.
+ */
+public final class JsonBody {
+
+    private final byte[] bytes;
+
+    private JsonBody(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static JsonBody of(ObjectMapper objectMapper, Object value) {
+        try {
+            return new JsonBody(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize constant response body", e);
+        }
+    }
+
+    public ResponseEntity<byte[]> toResponse() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(bytes.length)
+                .body(bytes);
+    }
+}
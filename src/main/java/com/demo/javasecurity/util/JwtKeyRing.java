@@ -0,0 +1,514 @@
+package com.demo.javasecurity.util;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing keys for access tokens, selected by the {@code kid} header.
+ * <p>
+ * With {@code jwt.algorithm=HS512} tokens are signed with {@code jwt.secret}
+ * exactly as before and carry no kid. With RS256 or ES256 the keys are loaded
+ * from {@code jwt.key-store} and rotated every {@code jwt.key-rotation-interval};
+ * the public keys are published through {@link #getJwks()}. Every rotation is
+ * written back to the key store, so tokens survive a restart. Without a key
+ * store the keys are generated in memory, which only suits development. The next key is
+ * published one rotation ahead of use, so verifiers that cache the key set
+ * already know a kid before the first token signed with it. Retired keys keep
+ * verifying until every token they signed has expired.
+ * <p>
+ * Instances may share one key store. Every rotation check holds an exclusive
+ * lock on {@code <key-store>.lock} and starts from the store as written, not
+ * from memory: the first instance to find a rotation due performs it, and the
+ * others load its result instead of rotating again. All instances therefore
+ * sign with the same key, within one check interval, and serve the same JWKS.
+ * The shared file system must support {@link FileLock}s.
+ * <p>
+ * Lookups read one immutable snapshot, so verification needs no locking.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    // Tokens signed with jwt.secret have no kid header
+    private static final String LEGACY_KEY_ID = "";
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final ObjectMapper KEY_STORE_MAPPER = new ObjectMapper();
+
+    public enum SigningAlgorithm {
+        HS512,
+        RS256,
+        ES256
+    }
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${jwt.algorithm:HS512}")
+    private SigningAlgorithm signingAlgorithm;
+
+    @Value("${jwt.key-rotation-interval:24h}")
+    private Duration rotationInterval;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    // Migration switch: keep verifying HS512 tokens without a kid after moving to an asymmetric algorithm
+    @Value("${jwt.accept-legacy-hmac:false}")
+    private boolean acceptLegacyHmac;
+
+    // JSON file with the current, next and retired key pairs; created on first start
+    @Value("${jwt.key-store:}")
+    private String keyStore;
+
+    // FileLock only excludes other processes; key rings within this JVM also serialize here
+    private static final Object KEY_STORE_MUTEX = new Object();
+
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile KeySet keySet;
+
+    // Identity of the key store file keySet was read from or written to; the store is replaced, never edited
+    private Object storeVersion;
+
+    /**
+     * A key the ring can sign with. {@code keyId} is null for the legacy HMAC key.
+     */
+    public static final class SigningKey {
+
+        private final String keyId;
+        private final Algorithm algorithm;
+        private final Map<String, Object> jwk;
+        // Null for the legacy HMAC key
+        private final KeyPair keyPair;
+
+        private SigningKey(String keyId, Algorithm algorithm, Map<String, Object> jwk, KeyPair keyPair) {
+            this.keyId = keyId;
+            this.algorithm = algorithm;
+            this.jwk = jwk;
+            this.keyPair = keyPair;
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+    }
+
+    private static final class RetiredKey {
+
+        private final SigningKey key;
+        private final Instant retiredAt;
+
+        private RetiredKey(SigningKey key, Instant retiredAt) {
+            this.key = key;
+            this.retiredAt = retiredAt;
+        }
+    }
+
+    private static final class KeySet {
+
+        private final SigningKey current;
+        private final SigningKey next;
+        private final Instant activatedAt;
+        private final List<RetiredKey> retired;
+        private final Map<String, JWTVerifier> verifiers;
+        private final Map<String, Object> jwks;
+        private final String jwksEtag;
+
+        private KeySet(SigningKey current, SigningKey next, Instant activatedAt, List<RetiredKey> retired,
+                       Map<String, JWTVerifier> verifiers, Map<String, Object> jwks, String jwksEtag) {
+            this.current = current;
+            this.next = next;
+            this.activatedAt = activatedAt;
+            this.retired = retired;
+            this.verifiers = verifiers;
+            this.jwks = jwks;
+            this.jwksEtag = jwksEtag;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        if (signingAlgorithm == SigningAlgorithm.HS512) {
+            keySet = buildKeySet(legacyKey(), null, Instant.now(), List.of());
+        } else if (!StringUtils.hasText(keyStore)) {
+            logger.warn("No jwt.key-store configured: {} keys are generated in memory and every token "
+                        + "is rejected after a restart", signingAlgorithm);
+            keySet = buildKeySet(generateKey(), generateKey(), Instant.now(), List.of());
+        } else {
+            keySet = withKeyStoreLock(path -> {
+                if (Files.exists(path)) {
+                    return load(path);
+                }
+                KeySet created = buildKeySet(generateKey(), generateKey(), Instant.now(), List.of());
+                store(created);
+                logger.info("Created JWT key store {}", path);
+                return created;
+            });
+        }
+        logger.info("JWT signing algorithm {}, current kid {}", signingAlgorithm, keySet.current.keyId);
+    }
+
+    public SigningKey getSigningKey() {
+        return keySet.current;
+    }
+
+    /**
+     * Verifier for the given kid (null for tokens without one), or null if the
+     * key is unknown or no longer trusted.
+     */
+    public JWTVerifier getVerifier(String keyId) {
+        return keySet.verifiers.get(keyId != null ? keyId : LEGACY_KEY_ID);
+    }
+
+    /**
+     * The public keys as a JWK Set (RFC 7517). Empty when tokens are signed with HS512.
+     */
+    public Map<String, Object> getJwks() {
+        return keySet.jwks;
+    }
+
+    /**
+     * Strong ETag of {@link #getJwks()}: a digest of the published kids, which
+     * are random and never reused, so it changes exactly when the set does.
+     */
+    public String getJwksEtag() {
+        return keySet.jwksEtag;
+    }
+
+    /**
+     * Whether tokens keyed by {@code jwt.secret} are still trusted: always with
+     * HS512, and with an asymmetric algorithm only while accept-legacy-hmac is on.
+     */
+    public boolean trustsSecretKeyedTokens() {
+        return signingAlgorithm == SigningAlgorithm.HS512 || acceptLegacyHmac;
+    }
+
+    public Duration getRotationInterval() {
+        return rotationInterval;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.key-rotation-check-interval:60000}")
+    public void rotateIfDue() {
+        if (signingAlgorithm == SigningAlgorithm.HS512) {
+            return;
+        }
+        if (!StringUtils.hasText(keyStore)) {
+            KeySet updated = rotated(keySet, Instant.now());
+            if (updated != null) {
+                keySet = updated;
+            }
+            return;
+        }
+        keySet = withKeyStoreLock(path -> {
+            // Another instance may have rotated or expired keys since this one last looked
+            KeySet stored = version(path).equals(storeVersion) ? keySet : load(path);
+            KeySet updated = rotated(stored, Instant.now());
+            if (updated == null) {
+                return stored;
+            }
+            // Persist first: a key that signs tokens must not be lost on restart
+            store(updated);
+            return updated;
+        });
+    }
+
+    /**
+     * The key set after any rotation or expiry that is due, or null if none is.
+     */
+    private KeySet rotated(KeySet current, Instant now) {
+        boolean rotate = !now.isBefore(current.activatedAt.plus(rotationInterval));
+        boolean expire = current.retired.stream().anyMatch(retired -> isExpired(retired, now));
+        if (!rotate && !expire) {
+            return null;
+        }
+
+        List<RetiredKey> retired = new ArrayList<>();
+        for (RetiredKey key : current.retired) {
+            if (!isExpired(key, now)) {
+                retired.add(key);
+            }
+        }
+        if (!rotate) {
+            return buildKeySet(current.current, current.next, current.activatedAt, retired);
+        }
+        retired.add(new RetiredKey(current.current, now));
+        KeySet updated = buildKeySet(current.next, generateKey(), now, retired);
+        logger.info("Rotated JWT signing key, current kid {}", updated.current.keyId);
+        return updated;
+    }
+
+    // A retired key is dropped once the last token it could have signed has expired
+    private boolean isExpired(RetiredKey key, Instant now) {
+        return now.isAfter(key.retiredAt.plusMillis(jwtExpirationMs));
+    }
+
+    private KeySet buildKeySet(SigningKey current, SigningKey next, Instant activatedAt, List<RetiredKey> retired) {
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        List<Map<String, Object>> keys = new ArrayList<>();
+        MessageDigest kids = sha256();
+        List<SigningKey> trusted = new ArrayList<>();
+        trusted.add(current);
+        if (next != null) {
+            trusted.add(next);
+        }
+        retired.forEach(key -> trusted.add(key.key));
+
+        for (SigningKey key : trusted) {
+            verifiers.put(key.keyId != null ? key.keyId : LEGACY_KEY_ID, verifier(key.algorithm));
+            if (key.jwk != null) {
+                keys.add(key.jwk);
+                kids.update((key.keyId + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (acceptLegacyHmac && !verifiers.containsKey(LEGACY_KEY_ID)) {
+            verifiers.put(LEGACY_KEY_ID, verifier(legacyKey().algorithm));
+        }
+        return new KeySet(current, next, activatedAt, List.copyOf(retired), Map.copyOf(verifiers),
+                          Map.of("keys", List.copyOf(keys)), '"' + BASE64_URL.encodeToString(kids.digest()) + '"');
+    }
+
+    private static JWTVerifier verifier(Algorithm algorithm) {
+        return JWT.require(algorithm)
+                .withIssuer(JwtUtil.ISSUER)
+                .build();
+    }
+
+    private SigningKey legacyKey() {
+        return new SigningKey(null, Algorithm.HMAC512(jwtSecret), null, null);
+    }
+
+    private SigningKey generateKey() {
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+        try {
+            KeyPairGenerator generator;
+            if (signingAlgorithm == SigningAlgorithm.RS256) {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048, random);
+            } else {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"), random);
+            }
+            return signingKey(BASE64_URL.encodeToString(id), generator.generateKeyPair());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + signingAlgorithm + " signing key", e);
+        }
+    }
+
+    private SigningKey signingKey(String keyId, KeyPair pair) {
+        if (signingAlgorithm == SigningAlgorithm.RS256) {
+            RSAPublicKey publicKey = (RSAPublicKey) pair.getPublic();
+            Map<String, Object> jwk = jwk("RSA", keyId, "RS256");
+            jwk.put("n", BASE64_URL.encodeToString(unsigned(publicKey.getModulus(), 0)));
+            jwk.put("e", BASE64_URL.encodeToString(unsigned(publicKey.getPublicExponent(), 0)));
+            return new SigningKey(keyId, Algorithm.RSA256(publicKey, (RSAPrivateKey) pair.getPrivate()),
+                                  Collections.unmodifiableMap(jwk), pair);
+        }
+        ECPublicKey publicKey = (ECPublicKey) pair.getPublic();
+        Map<String, Object> jwk = jwk("EC", keyId, "ES256");
+        jwk.put("crv", "P-256");
+        jwk.put("x", BASE64_URL.encodeToString(unsigned(publicKey.getW().getAffineX(), 32)));
+        jwk.put("y", BASE64_URL.encodeToString(unsigned(publicKey.getW().getAffineY(), 32)));
+        return new SigningKey(keyId, Algorithm.ECDSA256(publicKey, (ECPrivateKey) pair.getPrivate()),
+                              Collections.unmodifiableMap(jwk), pair);
+    }
+
+    /*
+     * Key store layout: {"algorithm", "activatedAt", "current", "next", "retired": [...]}, each key
+     * {"kid", "publicKey" (X.509), "privateKey" (PKCS#8), "retiredAt"} in base64. Retired keys only
+     * verify, so their private halves are not kept.
+     */
+    private KeySet load(Path path) {
+        try {
+            Object version = version(path);
+            JsonNode root = KEY_STORE_MAPPER.readTree(path.toFile());
+            SigningAlgorithm stored = SigningAlgorithm.valueOf(root.path("algorithm").asText());
+            if (stored != signingAlgorithm) {
+                throw new IllegalStateException("Key store " + path + " holds " + stored + " keys but jwt.algorithm is "
+                                                + signingAlgorithm + "; move it aside to start a new key set");
+            }
+            List<RetiredKey> retired = new ArrayList<>();
+            for (JsonNode key : root.path("retired")) {
+                retired.add(new RetiredKey(readKey(key), Instant.parse(key.path("retiredAt").asText())));
+            }
+            KeySet loaded = buildKeySet(readKey(root.path("current")), readKey(root.path("next")),
+                                        Instant.parse(root.path("activatedAt").asText()), retired);
+            storeVersion = version;
+            return loaded;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException("Cannot load JWT key store " + path, e);
+        }
+    }
+
+    private SigningKey readKey(JsonNode key) throws GeneralSecurityException {
+        KeyFactory factory = KeyFactory.getInstance(signingAlgorithm == SigningAlgorithm.RS256 ? "RSA" : "EC");
+        Base64.Decoder base64 = Base64.getDecoder();
+        PublicKey publicKey = factory.generatePublic(
+                new X509EncodedKeySpec(base64.decode(key.path("publicKey").asText())));
+        PrivateKey privateKey = key.hasNonNull("privateKey")
+                ? factory.generatePrivate(new PKCS8EncodedKeySpec(base64.decode(key.get("privateKey").asText())))
+                : null;
+        return signingKey(key.path("kid").asText(), new KeyPair(publicKey, privateKey));
+    }
+
+    // Written to a sibling file and moved into place, so a crash never leaves a partial store.
+    // Callers hold the key store lock.
+    private void store(KeySet keys) {
+        ObjectNode root = KEY_STORE_MAPPER.createObjectNode();
+        root.put("algorithm", signingAlgorithm.name());
+        root.put("activatedAt", keys.activatedAt.toString());
+        root.set("current", writeKey(keys.current, true));
+        root.set("next", writeKey(keys.next, true));
+        ArrayNode retired = root.putArray("retired");
+        for (RetiredKey key : keys.retired) {
+            retired.add(writeKey(key.key, false).put("retiredAt", key.retiredAt.toString()));
+        }
+
+        Path path = Path.of(keyStore).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try {
+                if (Files.getFileStore(temporary).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                    Files.setPosixFilePermissions(temporary, PosixFilePermissions.fromString("rw-------"));
+                }
+                KEY_STORE_MAPPER.writeValue(temporary.toFile(), root);
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                storeVersion = version(path);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write JWT key store " + path, e);
+        }
+    }
+
+    private <T> T withKeyStoreLock(KeyStoreAction<T> action) {
+        Path path = Path.of(keyStore).toAbsolutePath();
+        Path lockFile = path.resolveSibling(path.getFileName() + ".lock");
+        synchronized (KEY_STORE_MUTEX) {
+            try {
+                Files.createDirectories(path.getParent());
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                                                            StandardOpenOption.WRITE);
+                     FileLock ignored = channel.lock()) {
+                    return action.apply(path);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot lock JWT key store " + path, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeyStoreAction<T> {
+
+        T apply(Path path) throws IOException;
+    }
+
+    // Each store() moves a new file into place, so the file key (inode) changes with every write
+    private static Object version(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return Arrays.asList(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+    }
+
+    private static ObjectNode writeKey(SigningKey key, boolean withPrivateKey) {
+        ObjectNode node = KEY_STORE_MAPPER.createObjectNode()
+                .put("kid", key.keyId)
+                .put("publicKey", Base64.getEncoder().encodeToString(key.keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            node.put("privateKey", Base64.getEncoder().encodeToString(key.keyPair.getPrivate().getEncoded()));
+        }
+        return node;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Map<String, Object> jwk(String keyType, String keyId, String algorithm) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", keyType);
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm);
+        return jwk;
+    }
+
+    // Big-endian magnitude without the sign byte, left-padded to length when > 0
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (length > bytes.length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            return padded;
+        }
+        return bytes;
+    }
+}
@@ -1,74 +1,275 @@
 package com.demo.javasecurity.util;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.RegisteredClaims;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.exceptions.InvalidClaimException;
 import com.auth0.jwt.exceptions.JWTCreationException;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.util.JwtVerificationResult.FailureReason;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
+/**
+ * Issues and verifies access tokens. {@code jwt.format} selects what is
+ * issued: standard JWTs, or the {@link CompactTokenCodec} binary format for
+ * internal traffic. JWTs are always accepted; compact tokens only with
+ * {@code jwt.format=COMPACT} or {@code jwt.accept-compact=true}, and never
+ * once the keys have moved off {@code jwt.secret} with
+ * {@code jwt.accept-legacy-hmac=false}, since their MAC is keyed by it.
+ */
 @Component
 public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    public static final String ISSUER = "java-security-demo";
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    public static final String ROLE_CLAIM = "role";
+
+    private static final Set<String> REGISTERED_CLAIMS = Set.of(
+            RegisteredClaims.ISSUER, RegisteredClaims.SUBJECT, RegisteredClaims.AUDIENCE,
+            RegisteredClaims.EXPIRES_AT, RegisteredClaims.NOT_BEFORE, RegisteredClaims.ISSUED_AT,
+            RegisteredClaims.JWT_ID);
+
+    private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public enum TokenFormat {
+        JWT,
+        COMPACT
+    }
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.format:JWT}")
+    private TokenFormat tokenFormat;
+
+    // Keep verifying ct1. tokens while issuing JWTs, e.g. after switching back from COMPACT
+    @Value("${jwt.accept-compact:false}")
+    private boolean acceptCompact;
+
+    // Batches smaller than this are not worth splitting across threads
+    @Value("${jwt.batch.parallel-threshold:64}")
+    private int parallelThreshold;
+
+    // Dedicated pool so large batches do not compete with the common pool
+    private final ForkJoinPool batchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // Null when compact tokens are not accepted
+    private CompactTokenCodec compactTokens;
+
+    @PostConstruct
+    void init() {
+        if (tokenFormat == TokenFormat.COMPACT || (acceptCompact && keyRing.trustsSecretKeyedTokens())) {
+            compactTokens = new CompactTokenCodec(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        } else if (acceptCompact) {
+            logger.warn("jwt.accept-compact ignored: compact tokens are keyed by jwt.secret, "
+                        + "which jwt.accept-legacy-hmac=false no longer trusts");
+        }
+        logger.info("Issuing access tokens in {} format, accepting compact tokens: {}", tokenFormat,
+                    compactTokens != null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        batchPool.shutdown();
+    }
+
+    public int getJwtExpirationMs() {
+        return jwtExpirationMs;
+    }
+
     public String generateJwtToken(UserDetails userPrincipal) {
+        if (userPrincipal instanceof User user) {
+            return generateTokenFromUsername(user.getUsername(), user.getId(), user.getRole());
+        }
         return generateTokenFromUsername(userPrincipal.getUsername());
     }
 
     public String generateTokenFromUsername(String username) {
+        return generateTokenFromUsername(username, null, null);
+    }
+
+    /**
+     * Issues a token that also carries the user id and role, so that the
+     * principal can be rebuilt from the token alone (see jwt.stateless-principal).
+     */
+    public String generateTokenFromUsername(String username, Long userId, Role role) {
+        if (tokenFormat == TokenFormat.COMPACT) {
+            Instant now = Instant.now();
+            return compactTokens.encode(username, newTokenIdBytes(), now, now.plusMillis(jwtExpirationMs), userId,
+                                        role);
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC512(jwtSecret);
-            return JWT.create()
+            JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+            Date now = new Date();
+            JWTCreator.Builder builder = JWT.create()
                     .withSubject(username)
-                    .withIssuedAt(new Date())
-                    .withExpiresAt(new Date((new Date()).getTime() + jwtExpirationMs))
-                    .withIssuer("java-security-demo")
-                    .sign(algorithm);
+                    .withJWTId(TOKEN_ID_ENCODER.encodeToString(newTokenIdBytes()))
+                    .withIssuedAt(now)
+                    .withExpiresAt(new Date(now.getTime() + jwtExpirationMs))
+                    .withIssuer(ISSUER);
+            if (signingKey.getKeyId() != null) {
+                builder.withKeyId(signingKey.getKeyId());
+            }
+            if (userId != null) {
+                builder.withClaim(USER_ID_CLAIM, userId);
+            }
+            if (role != null) {
+                builder.withClaim(ROLE_CLAIM, role.name());
+            }
+            return builder.sign(signingKey.getAlgorithm());
         } catch (JWTCreationException exception) {
             logger.error("Error generating JWT token: {}", exception.getMessage());
             throw new RuntimeException("Error generating JWT token", exception);
         }
     }
 
-    public String getUserNameFromJwtToken(String token) {
+    /**
+     * Decodes and verifies the token in a single pass. Callers that need both
+     * validity and claims should use this instead of validateJwtToken followed
+     * by getUserNameFromJwtToken, which verifies the signature twice.
+     */
+    public JwtVerificationResult verifyJwtToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return JwtVerificationResult.failure(FailureReason.MISSING, "JWT token is empty");
+        }
+        if (CompactTokenCodec.isCompact(token)) {
+            return compactTokens != null
+                    ? compactTokens.verify(token, Instant.now())
+                    : JwtVerificationResult.failure(FailureReason.MALFORMED, "Compact tokens are not accepted");
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC512(jwtSecret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer("java-security-demo")
-                    .build();
-            DecodedJWT jwt = verifier.verify(token);
-            return jwt.getSubject();
-        } catch (JWTVerificationException exception) {
-            logger.error("Error extracting username from JWT token: {}", exception.getMessage());
-            return null;
+            DecodedJWT jwt = JWT.decode(token);
+            JWTVerifier verifier = keyRing.getVerifier(jwt.getKeyId());
+            if (verifier == null) {
+                logger.debug("Unknown JWT key id: {}", jwt.getKeyId());
+                return JwtVerificationResult.failure(FailureReason.INVALID_SIGNATURE, "Unknown key id");
+            }
+            verifier.verify(jwt);
+            return JwtVerificationResult.success(jwt.getSubject(), jwt.getId(), jwt.getIssuedAtAsInstant(),
+                                                 jwt.getExpiresAtAsInstant(), privateClaims(jwt));
+        } catch (JWTVerificationException e) {
+            // Rejections are counted by reason in auth.rejections; keep the log quiet under load
+            logger.debug("Invalid JWT token: {}", e.getMessage());
+            return JwtVerificationResult.failure(failureReason(e), e.getMessage());
         }
     }
 
+    /**
+     * Verifies every token, in parallel for large batches. Results are in input order.
+     */
+    public List<JwtVerificationResult> verifyJwtTokens(List<String> tokens) {
+        return mapBatch(tokens, this::verifyJwtToken);
+    }
+
+    /**
+     * Issues one token per principal, in parallel for large batches. Results are in input order.
+     */
+    public List<String> generateJwtTokens(List<? extends UserDetails> principals) {
+        return mapBatch(principals, this::generateJwtToken);
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        JwtVerificationResult result = verifyJwtToken(token);
+        return result.isValid() ? result.getSubject() : null;
+    }
+
     public boolean validateJwtToken(String authToken) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC512(jwtSecret);
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer("java-security-demo")
-                    .build();
-            verifier.verify(authToken);
-            return true;
-        } catch (JWTVerificationException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+        return verifyJwtToken(authToken).isValid();
+    }
+
+    /**
+     * Rebuilds a detached {@link User} principal from the uid/role claims, or
+     * returns null when the token was issued without them.
+     */
+    public User principalFromClaims(JwtVerificationResult result) {
+        if (!result.isValid() || result.getUserId() == null || result.getRole() == null) {
+            return null;
+        }
+        User user = new User(result.getSubject(), "", Role.valueOf(result.getRole()));
+        user.setId(result.getUserId());
+        return user;
+    }
+
+    private <T, R> List<R> mapBatch(List<T> items, Function<T, R> operation) {
+        if (items.size() < parallelThreshold) {
+            return items.stream().map(operation).toList();
+        }
+        return batchPool.submit(() -> items.parallelStream().map(operation).toList()).join();
+    }
+
+    // 128 random bits; ids only need to be unique, not secret, so no SecureRandom contention
+    private static byte[] newTokenIdBytes() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return ByteBuffer.allocate(16).putLong(random.nextLong()).putLong(random.nextLong()).array();
+    }
+
+    private static Map<String, Object> privateClaims(DecodedJWT jwt) {
+        Map<String, Claim> claims = jwt.getClaims();
+        if (claims.size() <= REGISTERED_CLAIMS.size() && REGISTERED_CLAIMS.containsAll(claims.keySet())) {
+            return Map.of();
+        }
+        Map<String, Object> result = new HashMap<>();
+        claims.forEach((name, claim) -> {
+            if (!REGISTERED_CLAIMS.contains(name) && !claim.isNull() && !claim.isMissing()) {
+                result.put(name, claim.as(Object.class));
+            }
+        });
+        return result;
+    }
+
+    private static FailureReason failureReason(JWTVerificationException e) {
+        if (e instanceof TokenExpiredException) {
+            return FailureReason.EXPIRED;
+        }
+        if (e instanceof SignatureVerificationException || e instanceof AlgorithmMismatchException) {
+            return FailureReason.INVALID_SIGNATURE;
+        }
+        if (e instanceof JWTDecodeException) {
+            return FailureReason.MALFORMED;
+        }
+        if (e instanceof InvalidClaimException) {
+            return FailureReason.INVALID_CLAIM;
         }
-        return false;
+        return FailureReason.MALFORMED;
     }
 }
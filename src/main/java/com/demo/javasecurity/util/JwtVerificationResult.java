@@ -0,0 +1,97 @@
+package com.demo.javasecurity.util;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Outcome of a single decode-and-verify pass over a JWT.
+ * Either carries the verified subject, expiry and private claims,
+ * or the reason the token was rejected.
+ */
+public final class JwtVerificationResult {
+
+    public enum FailureReason {
+        MISSING,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        EXPIRED,
+        INVALID_CLAIM
+    }
+
+    private final FailureReason failureReason;
+    private final String failureMessage;
+    private final String subject;
+    private final String tokenId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Map<String, Object> claims;
+
+    private JwtVerificationResult(FailureReason failureReason, String failureMessage, String subject, String tokenId,
+                                  Instant issuedAt, Instant expiresAt, Map<String, Object> claims) {
+        this.failureReason = failureReason;
+        this.failureMessage = failureMessage;
+        this.subject = subject;
+        this.tokenId = tokenId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.claims = claims;
+    }
+
+    public static JwtVerificationResult success(String subject, String tokenId, Instant issuedAt, Instant expiresAt,
+                                                Map<String, Object> claims) {
+        return new JwtVerificationResult(null, null, subject, tokenId, issuedAt, expiresAt, Map.copyOf(claims));
+    }
+
+    public static JwtVerificationResult failure(FailureReason reason, String message) {
+        return new JwtVerificationResult(reason, message, null, null, null, null, Map.of());
+    }
+
+    public boolean isValid() {
+        return failureReason == null;
+    }
+
+    public FailureReason getFailureReason() {
+        return failureReason;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * The jti claim, or null for tokens issued before token ids were added.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Private (non-registered) claims carried by the token, e.g. anything
+     * added on top of sub/iss/iat/exp.
+     */
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    public Long getUserId() {
+        Object uid = claims.get(JwtUtil.USER_ID_CLAIM);
+        return uid instanceof Number number ? number.longValue() : null;
+    }
+
+    public String getRole() {
+        Object role = claims.get(JwtUtil.ROLE_CLAIM);
+        return role instanceof String name ? name : null;
+    }
+}
@@ -0,0 +1,205 @@
+package com.demo.javasecurity.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of newline-terminated text records (e.g. NDJSON) kept in
+ * fixed-size, memory-mapped segment files {@code <prefix>-<n>.log}. A segment
+ * is preallocated and filled from the start, so the first zero byte marks its
+ * end and a restart resumes after the last complete record. When a record no
+ * longer fits, the next segment is started and segments beyond
+ * {@code maxSegments} are deleted, oldest first.
+ * <p>
+ * Appends must come from a single thread; {@link #readBackwards} may run
+ * concurrently from any thread.
+ */
+public final class MappedSegmentLog implements Closeable {
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    // Oldest first; the last one is being appended to
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    private static final class Segment {
+        final long number;
+        final Path path;
+        final MappedByteBuffer buffer;
+        // Bytes holding complete records; published after the record is copied
+        volatile int committed;
+
+        Segment(long number, Path path, MappedByteBuffer buffer, int committed) {
+            this.number = number;
+            this.path = path;
+            this.buffer = buffer;
+            this.committed = committed;
+        }
+    }
+
+    public MappedSegmentLog(Path directory, String prefix, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(directory);
+        for (Path path : existingSegments()) {
+            segments.add(open(path, segmentNumber(path)));
+        }
+        if (segments.isEmpty()) {
+            segments.add(open(segmentPath(1), 1));
+        }
+        trim();
+    }
+
+    /**
+     * Appends one record. It must end with {@code '\n'}, contain no zero bytes
+     * and be at most one segment long.
+     */
+    public void append(byte[] record, int offset, int length) throws IOException {
+        if (length > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds the segment size");
+        }
+        Segment active = active();
+        if (active.committed + length > active.buffer.capacity()) {
+            active.buffer.force();
+            active = open(segmentPath(active.number + 1), active.number + 1);
+            segments.add(active);
+            trim();
+        }
+        int position = active.committed;
+        active.buffer.put(position, record, offset, length);
+        active.committed = position + length;
+    }
+
+    public void force() {
+        active().buffer.force();
+    }
+
+    /**
+     * Visits complete records newest first, without the trailing newline,
+     * until {@code visitor} returns false.
+     */
+    public void readBackwards(Predicate<String> visitor) {
+        List<Segment> snapshot = new ArrayList<>(segments);
+        for (int s = snapshot.size() - 1; s >= 0; s--) {
+            Segment segment = snapshot.get(s);
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int end = segment.committed;
+            while (end > 0) {
+                // end points just past a record's newline
+                int start = end - 1;
+                while (start > 0 && buffer.get(start - 1) != '\n') {
+                    start--;
+                }
+                byte[] line = new byte[end - 1 - start];
+                buffer.get(start, line);
+                if (!visitor.test(new String(line, StandardCharsets.UTF_8))) {
+                    return;
+                }
+                end = start;
+            }
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Bytes of complete records across all retained segments.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.committed;
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private Segment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private Segment open(Path path, long number) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            long capacity = Math.max(channel.size(), segmentSize);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new Segment(number, path, buffer, recover(buffer));
+        }
+    }
+
+    // Records never contain a zero byte, so the written prefix can be found by
+    // binary search; a torn record after the last newline is wiped
+    private static int recover(MappedByteBuffer buffer) {
+        int low = 0;
+        int high = buffer.capacity();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.get(mid) != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end > 0 && buffer.get(end - 1) != '\n') {
+            end--;
+        }
+        for (int i = end; i < low; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return end;
+    }
+
+    private void trim() throws IOException {
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            Files.deleteIfExists(oldest.path);
+        }
+    }
+
+    private List<Path> existingSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> segmentNumber(path) > 0)
+                    .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s-%010d.log", prefix, number));
+    }
+
+    private long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(prefix + "-") || !name.endsWith(".log")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length() + 1, name.length() - 4));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.demo.javasecurity.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer queue. Producers claim a
+ * sequence with one CAS and publish the element with a release store; a full
+ * buffer makes {@link #offer} return false instead of waiting. Only one
+ * thread may call {@link #drain}.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+
+    // Next sequence to claim (producers) and next sequence to read (consumer)
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) (sequence & mask), element);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code limit} published elements to {@code consumer} in
+     * claim order and returns how many were taken. Stops early at a slot that
+     * was claimed but not yet published.
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long sequence = head.get();
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (sequence & mask);
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            sequence++;
+            drained++;
+            consumer.accept(element);
+        }
+        if (drained > 0) {
+            head.lazySet(sequence);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,89 @@
+package com.demo.javasecurity.config;
+
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The delegating encoder with Argon2 as the configured id: hashes of the
+ * other encoders, and unprefixed legacy BCrypt, keep verifying and are
+ * re-hashed with Argon2 on the next successful sign-in.
+ */
+@SpringBootTest(properties = {
+        "security.password.encoder=argon2",
+        "security.password.argon2-memory-kib=1024",
+        "security.password.argon2-iterations=1",
+        "security.password.bcrypt-strength=4"
+})
+class PasswordEncoderConfigTest {
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void newHashesUseTheConfiguredEncoder() {
+        String hash = passwordEncoder.encode("secret123");
+
+        assertThat(hash).startsWith("{argon2}");
+        assertThat(passwordEncoder.matches("secret123", hash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void hashesOfOtherEncodersVerifyAndAreMarkedForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret123");
+
+        for (String hash : new String[] {legacy, "{bcrypt}" + legacy}) {
+            assertThat(passwordEncoder.matches("secret123", hash)).as(hash).isTrue();
+            assertThat(passwordEncoder.matches("wrong", hash)).as(hash).isFalse();
+            assertThat(passwordEncoder.upgradeEncoding(hash)).as(hash).isTrue();
+        }
+    }
+
+    @Test
+    void signInRehashesAStaleHash() {
+        User user = userRepository.findByUsername("user").orElseThrow();
+        String original = user.getPassword();
+        user.setPassword(new BCryptPasswordEncoder(4).encode("user123"));
+        userRepository.save(user);
+        try {
+            authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "user123"));
+
+            String rehashed = userRepository.findByUsername("user").orElseThrow().getPassword();
+            assertThat(rehashed).startsWith("{argon2}");
+            assertThat(passwordEncoder.matches("user123", rehashed)).isTrue();
+        } finally {
+            User restored = userRepository.findByUsername("user").orElseThrow();
+            restored.setPassword(original);
+            userRepository.save(restored);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.demo.javasecurity.config;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Read/write routing with two separate in-memory H2 databases. The replica is
+ * never written by the application and receives no replication, so a row
+ * found in only one of them shows which database served the query.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "datasource.replica.max-lag=300ms",
+        "security.password.bcrypt-strength=4"
+})
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:replica-routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    // Hibernate creates the schema on the primary only; startup already reads through the replica
+    @BeforeAll
+    static void createReplicaSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists users (id bigint primary key, "
+                              + "username varchar(255) not null unique, password varchar(255) not null, "
+                              + "role varchar(255), enabled boolean not null, failed_attempts int not null, "
+                              + "locked_until timestamp(6) with time zone)");
+        }
+    }
+
+    @Test
+    void readOnlyLookupsAreServedByTheReplica() {
+        replica().update("insert into users (id, username, password, role, enabled, failed_attempts) "
+                         + "values (9001, 'replica-only', 'x', 'USER', true, 0)");
+
+        assertThat(userDetailsService.loadUserByUsername("replica-only").getUsername()).isEqualTo("replica-only");
+        assertThat(userDetailsService.loadPrincipalByUsername("replica-only").getUsername()).isEqualTo("replica-only");
+        assertThat(rowsNamed(new JdbcTemplate(primaryDataSource), "replica-only")).isZero();
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        userRepository.save(new User("written", "x", Role.USER));
+
+        assertThat(rowsNamed(new JdbcTemplate(primaryDataSource), "written")).isOne();
+        assertThat(rowsNamed(replica(), "written")).isZero();
+    }
+
+    @Test
+    void recentlyChangedUsersAreReadFromThePrimaryUntilTheLagHasPassed() throws InterruptedException {
+        userRepository.save(new User("fresh", "x", Role.USER));
+
+        // Not on the replica yet, so these can only succeed on the primary
+        assertThat(userDetailsService.loadUserByUsername("fresh").getUsername()).isEqualTo("fresh");
+        assertThat(userDetailsService.loadPrincipalByUsername("fresh").getUsername()).isEqualTo("fresh");
+
+        Thread.sleep(500);
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("fresh"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private static JdbcTemplate replica() {
+        try {
+            return new JdbcTemplate(new SingleConnectionDataSource(
+                    DriverManager.getConnection(REPLICA_URL, "sa", ""), true));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int rowsNamed(JdbcTemplate jdbc, String username) {
+        return jdbc.queryForObject("select count(*) from users where username = ?", Integer.class, username);
+    }
+}
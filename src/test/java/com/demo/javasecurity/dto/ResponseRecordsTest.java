@@ -0,0 +1,149 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The response records must serialize to the same JSON the controllers'
+ * maps produced, so clients see no change.
+ */
+class ResponseRecordsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+
+    @Test
+    void profileMatchesTheMapBody() {
+        ProfileResponse profile = ProfileResponse.jwt("user", Role.USER, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "JWT Authentication successful");
+        map.put("username", "user");
+        map.put("role", Role.USER);
+        map.put("authorities", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        map.put("security", "JWT_TOKEN");
+        map.put("timestamp", profile.timestamp());
+
+        assertThat(json(profile)).isEqualTo(json(map));
+    }
+
+    @Test
+    void userInfoMatchesTheMapBody() {
+        UserInfoResponse info = UserInfoResponse.basic("admin", AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Basic Authentication successful");
+        map.put("username", "admin");
+        map.put("authorities", AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        map.put("security", "HTTP_BASIC");
+        map.put("timestamp", info.timestamp());
+
+        assertThat(json(info)).isEqualTo(json(map));
+    }
+
+    @Test
+    void dashboardMatchesTheMapBody() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Welcome to your secure dashboard");
+        map.put("user", "admin");
+        map.put("role", Role.ADMIN);
+        map.put("dashboardData", Map.of("totalUsers", 12L, "activeUsers", 3L));
+        map.put("security", "JWT_TOKEN");
+
+        assertThat(json(DashboardResponse.jwt("admin", Role.ADMIN, 12, 3))).isEqualTo(json(map));
+    }
+
+    @Test
+    void secureActionMatchesTheMapBodyIncludingAMissingAction() {
+        for (Object action : new Object[] {"approve", Map.of("id", 7), null}) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "Secure action performed with JWT authentication");
+            map.put("performedBy", "user");
+            map.put("userRole", Role.USER);
+            map.put("action", action);
+            map.put("result", "SUCCESS");
+            map.put("security", "JWT_TOKEN");
+
+            assertThat(json(SecureActionResponse.jwt("user", Role.USER, action))).isEqualTo(json(map));
+        }
+    }
+
+    @Test
+    void adminBodiesMatchTheMapBodies() {
+        Map<String, Object> rejected = new HashMap<>();
+        rejected.put("message", "User not found");
+        rejected.put("result", "NOT_FOUND");
+        assertThat(json(AdminResponse.Rejected.notFound("User not found"))).isEqualTo(json(rejected));
+
+        List<UserSummary> users = List.of(new UserSummary(7L, "user", "USER", "ACTIVE"));
+        Map<String, Object> page = new HashMap<>();
+        page.put("message", "All users data - Admin access required");
+        page.put("users", users);
+        page.put("count", 1);
+        page.put("nextCursor", null);
+        page.put("security", "CONFIGURATION_LEVEL_ADMIN_ONLY");
+        assertThat(json(AdminResponse.UsersPage.of(users, null))).isEqualTo(json(page));
+
+        UserImportResult result = new UserImportResult("csv", 0);
+        Map<String, Object> imported = new HashMap<>();
+        imported.put("message", "User import failed, resume with ?skip=0");
+        imported.put("import", result);
+        imported.put("performedBy", "admin");
+        imported.put("result", "FAILED");
+        imported.put("security", "CONFIGURATION_LEVEL_ADMIN_ONLY");
+        assertThat(json(AdminResponse.UsersImported.of(result, "admin"))).isEqualTo(json(imported));
+    }
+
+    // WebFlux picks its JSON encoder by the declared type, ResponseEntity<AdminResponse>
+    @Test
+    void adminResponseTypeIsSerializable() {
+        assertThat(objectMapper.canSerialize(AdminResponse.class)).isTrue();
+    }
+
+    @Test
+    void methodSecurityBodiesMatchTheMapBodies() {
+        Map<String, Object> adminOnly = new HashMap<>();
+        adminOnly.put("message", "This endpoint is accessible only to ADMIN role");
+        adminOnly.put("username", "admin");
+        adminOnly.put("role", Role.ADMIN);
+        adminOnly.put("adminData", Map.of(
+                "systemLogs", "Access granted to system logs",
+                "userManagement", "Full user management access",
+                "systemSettings", "Configuration access granted"));
+        adminOnly.put("security", "METHOD_LEVEL_SECURITY");
+        adminOnly.put("accessLevel", "ADMIN_ONLY");
+        assertThat(json(MethodSecurityResponse.AdminData.of("admin", Role.ADMIN))).isEqualTo(json(adminOnly));
+
+        MethodSecurityResponse.AdminAction action = MethodSecurityResponse.AdminAction.of("admin", null);
+        Map<String, Object> adminAction = new HashMap<>();
+        adminAction.put("message", "Admin action performed successfully");
+        adminAction.put("performedBy", "admin");
+        adminAction.put("action", null);
+        adminAction.put("result", "ADMIN_ACTION_COMPLETED");
+        adminAction.put("security", "METHOD_LEVEL_SECURITY");
+        adminAction.put("timestamp", action.timestamp());
+        assertThat(json(action)).isEqualTo(json(adminAction));
+
+        Map<String, Object> check = new HashMap<>();
+        check.put("message", "User can access their own data or ADMIN can access any user data");
+        check.put("requestedUser", "user");
+        check.put("currentUser", "user");
+        check.put("role", Role.USER);
+        check.put("security", "METHOD_LEVEL_SECURITY");
+        check.put("accessType", "SELF_ACCESS");
+        assertThat(json(MethodSecurityResponse.UserCheck.of("user", "user", Role.USER))).isEqualTo(json(check));
+    }
+
+    private JsonNode json(Object value) {
+        return objectMapper.valueToTree(value);
+    }
+}
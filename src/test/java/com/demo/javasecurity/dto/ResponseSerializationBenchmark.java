@@ -0,0 +1,79 @@
+package com.demo.javasecurity.dto;
+
+import com.demo.javasecurity.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and writing the /api/jwt/profile body: the original per-request
+ * HashMap through plain Jackson, against the record through Blackbird. Run
+ * with {@code -prof gc} to compare bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseSerializationBenchmark {
+
+    // Jackson closes the target after each write, and OutputStream.nullOutputStream() rejects writes once closed
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private final List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_USER");
+
+    private ObjectWriter plain;
+
+    private ObjectWriter blackbird;
+
+    @Setup
+    public void setUp() {
+        plain = new ObjectMapper().writer();
+        blackbird = new ObjectMapper().registerModule(new BlackbirdModule()).writer();
+    }
+
+    @Benchmark
+    public void map() throws IOException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "JWT Authentication successful");
+        response.put("username", "user");
+        response.put("role", Role.USER);
+        response.put("authorities", authorities);
+        response.put("security", "JWT_TOKEN");
+        response.put("timestamp", System.currentTimeMillis());
+        plain.writeValue(DISCARD, response);
+    }
+
+    @Benchmark
+    public void record() throws IOException {
+        blackbird.writeValue(DISCARD, ProfileResponse.jwt("user", Role.USER, authorities));
+    }
+}
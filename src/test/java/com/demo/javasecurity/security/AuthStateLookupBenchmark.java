@@ -0,0 +1,90 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.JavaSecurityDemoApplication;
+import com.demo.javasecurity.service.UserDetailsCache;
+import com.demo.javasecurity.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the shared auth state on the bearer-token path: the
+ * revocation check and the principal lookup that {@code AuthTokenFilter}
+ * makes. Both are answered by the local near-caches, so sample mode's p99
+ * shows what a request pays, with a peer instance subscribed.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuthStateLookupBenchmark {
+
+    private ConfigurableApplicationContext instance;
+
+    private ConfigurableApplicationContext peer;
+
+    private TokenRevocationList revocationList;
+
+    private UserDetailsCache userDetailsCache;
+
+    private String tokenId;
+
+    @Setup
+    public void setUp() {
+        instance = start("create-drop");
+        peer = start("none");
+        revocationList = instance.getBean(TokenRevocationList.class);
+        userDetailsCache = instance.getBean(UserDetailsCache.class);
+
+        // Some revocations from the peer, so the filter is not empty
+        JwtUtil peerJwt = peer.getBean(JwtUtil.class);
+        for (int i = 0; i < 100; i++) {
+            peer.getBean(TokenRevocationList.class).revokeToken(peerJwt.generateTokenFromUsername("user"));
+        }
+        JwtUtil jwtUtil = instance.getBean(JwtUtil.class);
+        tokenId = jwtUtil.verifyJwtToken(jwtUtil.generateTokenFromUsername("user")).getTokenId();
+        userDetailsCache.loadUserByUsername("user");
+    }
+
+    @TearDown
+    public void tearDown() {
+        peer.close();
+        instance.close();
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revocationList.isRevoked(tokenId);
+    }
+
+    @Benchmark
+    public UserDetails principalLookup() {
+        return userDetailsCache.loadUserByUsername("user");
+    }
+
+    private static ConfigurableApplicationContext start(String ddlAuto) {
+        return new SpringApplicationBuilder(JavaSecurityDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:auth-state-benchmark;DB_CLOSE_DELAY=-1",
+                     "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                     "--security.shared-state.store=memory",
+                     "--security.password.bcrypt-strength=4",
+                     "--logging.level.root=WARN");
+    }
+}
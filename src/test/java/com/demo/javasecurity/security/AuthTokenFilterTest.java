@@ -0,0 +1,103 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.service.ActivityMetrics;
+import com.demo.javasecurity.service.UserDetailsCache;
+import com.demo.javasecurity.util.JwtFixtures;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import com.demo.javasecurity.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * With {@code jwt.stateless-principal} the principal comes from the uid and
+ * role claims and the user cache is never consulted; tokens without those
+ * claims, and the default mode, still load the user.
+ */
+class AuthTokenFilterTest {
+
+    private final JwtUtil jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512));
+
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessPrincipalIsRebuiltFromTheClaims() throws Exception {
+        String token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+
+        Authentication authentication = authenticate(filter(true), token);
+
+        User principal = (User) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(2L);
+        assertThat(principal.getUsername()).isEqualTo("user");
+        assertThat(principal.getRole()).isEqualTo(Role.USER);
+        assertThat(principal.getPassword()).isEmpty();
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        verify(userDetailsCache, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void tokensWithoutTheClaimsFallBackToTheUserCache() throws Exception {
+        User stored = new User("user", "", Role.USER);
+        when(userDetailsCache.loadUserByUsername("user")).thenReturn(stored);
+
+        Authentication authentication = authenticate(filter(true), jwtUtil.generateTokenFromUsername("user"));
+
+        assertThat(authentication.getPrincipal()).isSameAs(stored);
+    }
+
+    @Test
+    void theDefaultModeLoadsTheUserEvenWithClaims() throws Exception {
+        User stored = new User("user", "", Role.USER);
+        when(userDetailsCache.loadUserByUsername("user")).thenReturn(stored);
+
+        String token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+
+        Authentication authentication = authenticate(filter(false), token);
+
+        assertThat(authentication.getPrincipal()).isSameAs(stored);
+    }
+
+    private AuthTokenFilter filter(boolean statelessPrincipal) {
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "jwtUtils", jwtUtil);
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", false);
+
+        AuthTokenFilter filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtil);
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", mock(TokenRevocationList.class));
+        ReflectionTestUtils.setField(filter, "userDetailsCache", userDetailsCache);
+        ReflectionTestUtils.setField(filter, "activityMetrics", mock(ActivityMetrics.class));
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", statelessPrincipal);
+        return filter;
+    }
+
+    private static Authentication authenticate(AuthTokenFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jwt/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        return authentication;
+    }
+}
@@ -0,0 +1,145 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.controller.MethodSecurityController;
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.RememberMeAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link CompiledPreAuthorizeManager} must decide exactly as Spring's SpEL
+ * {@link PreAuthorizeAuthorizationManager} for every {@code @PreAuthorize}
+ * expression, so each one is evaluated both ways for a range of callers.
+ */
+class CompiledPreAuthorizeEquivalenceTest {
+
+    private static final MethodSecurityController CONTROLLER = new MethodSecurityController();
+
+    private final PreAuthorizeAuthorizationManager spel = spelManager();
+
+    private final CompiledPreAuthorizeManager compiled = new CompiledPreAuthorizeManager(spelManager());
+
+    static Stream<Method> annotatedMethods() {
+        return Arrays.stream(MethodSecurityController.class.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(PreAuthorize.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource("annotatedMethods")
+    void compiledExpressionDecidesLikeSpel(Method method) {
+        callers().forEach((caller, authentication) -> {
+            for (Object[] arguments : argumentsFor(method)) {
+                MethodInvocation invocation = new SimpleMethodInvocation(CONTROLLER, method, arguments);
+
+                AuthorizationDecision expected = spel.check(() -> authentication, invocation);
+                AuthorizationDecision actual = compiled.check(() -> authentication, invocation);
+
+                assertThat(actual.isGranted())
+                        .as("@PreAuthorize(\"%s\") as %s with %s",
+                            method.getAnnotation(PreAuthorize.class).value(), caller, Arrays.toString(arguments))
+                        .isEqualTo(expected.isGranted());
+            }
+        });
+    }
+
+    @Test
+    void rolesComeFromTheAuthoritiesNotThePrincipal() {
+        User principal = new User("user", "password", Role.ADMIN);
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        assertThat(RoleSet.of(authentication)).isEqualTo(RoleSet.of(Role.USER));
+    }
+
+    @Test
+    void unsupportedExpressionsFallBackToSpel() throws NoSuchMethodException {
+        Method method = Fallback.class.getDeclaredMethod("call");
+        MethodInvocation invocation = new SimpleMethodInvocation(new Fallback(), method);
+
+        assertThat(compiled.check(() -> callers().get("user"), invocation).isGranted()).isTrue();
+        assertThat(compiled.check(() -> callers().get("admin"), invocation).isGranted()).isFalse();
+    }
+
+    static class Fallback {
+
+        @PreAuthorize("authentication.name.startsWith('u')")
+        public void call() {
+        }
+    }
+
+    private static Map<String, Authentication> callers() {
+        Map<String, Authentication> callers = new LinkedHashMap<>();
+        callers.put("anonymous", new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        callers.put("user", UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        callers.put("admin", UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        callers.put("user and admin", UsernamePasswordAuthenticationToken.authenticated(
+                "both", null, AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN")));
+        callers.put("no authorities", UsernamePasswordAuthenticationToken.authenticated(
+                "nobody", null, AuthorityUtils.NO_AUTHORITIES));
+        callers.put("unknown authority", UsernamePasswordAuthenticationToken.authenticated(
+                "auditor", null, AuthorityUtils.createAuthorityList("ROLE_AUDITOR", "SCOPE_read")));
+        // SpEL's hasRole reads the authorities only, whatever role the principal carries
+        callers.put("ADMIN principal with USER authority", UsernamePasswordAuthenticationToken.authenticated(
+                new User("user", "password", Role.ADMIN), null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        callers.put("USER principal with ADMIN authority", UsernamePasswordAuthenticationToken.authenticated(
+                new User("admin", "password", Role.USER), null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        // Role checks ignore Authentication.isAuthenticated(); see SecurityExpressionRoot
+        callers.put("unauthenticated token", UsernamePasswordAuthenticationToken.unauthenticated(
+                "user", "password"));
+        UsernamePasswordAuthenticationToken revoked = UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        revoked.setAuthenticated(false);
+        callers.put("setAuthenticated(false)", revoked);
+        callers.put("remember-me", new RememberMeAuthenticationToken(
+                "key", "user", AuthorityUtils.createAuthorityList("ROLE_USER")));
+        return callers;
+    }
+
+    private static List<Object[]> argumentsFor(Method method) {
+        List<Object[]> arguments = new ArrayList<>();
+        if (method.getParameterCount() == 0) {
+            arguments.add(new Object[0]);
+        } else if (method.getParameterTypes()[0] == String.class) {
+            for (String username : new String[] {"user", "admin", "both", "someone-else", null}) {
+                arguments.add(new Object[] {username});
+            }
+        } else {
+            arguments.add(new Object[] {Map.of("action", "test")});
+        }
+        return arguments;
+    }
+
+    private static PreAuthorizeAuthorizationManager spelManager() {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(new StaticApplicationContext());
+        PreAuthorizeAuthorizationManager manager = new PreAuthorizeAuthorizationManager();
+        manager.setExpressionHandler(expressionHandler);
+        return manager;
+    }
+}
@@ -0,0 +1,97 @@
+package com.demo.javasecurity.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A saturated login pool refuses sign-ins at once with 503 and Retry-After
+ * instead of queueing them behind password hashing, and serves them again
+ * as soon as it drains.
+ */
+@SpringBootTest(properties = {
+        "security.login.pool-size=1",
+        "security.login.queue-capacity=1",
+        "security.login.retry-after-seconds=3",
+        "security.password.bcrypt-strength=4"
+})
+@AutoConfigureMockMvc
+class LoginExecutorTest {
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void aFullPoolRefusesSignInsWith503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> blockers = new ArrayList<>();
+        try {
+            // One task on the only thread and one in the only queue slot
+            for (int i = 0; i < 2; i++) {
+                blockers.add(loginExecutor.submit(() -> await(release)));
+            }
+            assertThatThrownBy(() -> loginExecutor.submit(() -> true))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            signIn().andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+        } finally {
+            release.countDown();
+        }
+        CompletableFuture.allOf(blockers.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        signIn().andExpect(status().isOk());
+    }
+
+    private ResultActions signIn() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/signin")
+                                                   .contentType(MediaType.APPLICATION_JSON)
+                                                   .content("{\"username\": \"user\", \"password\": \"user123\"}"))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
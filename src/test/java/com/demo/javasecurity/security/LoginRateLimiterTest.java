@@ -0,0 +1,115 @@
+package com.demo.javasecurity.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sign-in attempts over the per-username or per-IP rate are refused with 429
+ * and a Retry-After of the time until the next token, before any password is
+ * checked; tokens come back at the configured rate.
+ */
+@SpringBootTest(properties = {
+        "security.login.rate-limit.username-limit=3",
+        "security.login.rate-limit.ip-limit=5",
+        "security.login.rate-limit.period=1m",
+        "security.password.bcrypt-strength=4"
+})
+@AutoConfigureMockMvc
+class LoginRateLimiterTest {
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void aUsernameOverItsLimitIsRefusedWith429() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            // A different address each time, so only the username bucket fills up
+            signIn("user", "user123", "10.0.1." + i).andExpect(status().isOk());
+        }
+
+        // Even the right password: the attempt is refused before it is checked.
+        // One attempt per 20 seconds comes back.
+        MvcResult refused = signIn("user", "user123", "10.0.1.9")
+                .andExpect(status().isTooManyRequests())
+                .andReturn();
+        long retryAfter = Long.parseLong(refused.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        assertThat(retryAfter).isBetween(1L, 20L);
+
+        signIn("admin", "admin123", "10.0.1.9").andExpect(status().isOk());
+    }
+
+    @Test
+    void anAddressOverItsLimitIsRefusedWhateverTheUsername() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            signIn("ghost-" + i, "wrong", "10.0.2.1").andExpect(status().isUnauthorized());
+        }
+
+        signIn("ghost-5", "wrong", "10.0.2.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        signIn("ghost-5", "wrong", "10.0.2.2").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokensComeBackAtTheConfiguredRate() throws Exception {
+        LoginRateLimiter limiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "usernameLimit", 2);
+        ReflectionTestUtils.setField(limiter, "ipLimit", 100);
+        ReflectionTestUtils.setField(limiter, "period", Duration.ofMillis(400));
+        ReflectionTestUtils.setField(limiter, "maximumKeys", 100L);
+        limiter.init();
+
+        assertThat(limiter.tryAcquire("user", "10.0.3.1")).isZero();
+        assertThat(limiter.tryAcquire("user", "10.0.3.1")).isZero();
+        Duration wait = limiter.tryAcquire("user", "10.0.3.1");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofMillis(200));
+
+        Thread.sleep(wait.toMillis() + 50);
+        assertThat(limiter.tryAcquire("user", "10.0.3.1")).isZero();
+    }
+
+    private ResultActions signIn(String username, String password, String clientIp) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/signin")
+                                                   .with(request -> {
+                                                       request.setRemoteAddr(clientIp);
+                                                       return request;
+                                                   })
+                                                   .contentType(MediaType.APPLICATION_JSON)
+                                                   .content("{\"username\": \"" + username
+                                                                    + "\", \"password\": \"" + password + "\"}"))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
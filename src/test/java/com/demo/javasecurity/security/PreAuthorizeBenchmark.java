@@ -0,0 +1,86 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.controller.MethodSecurityController;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@code @PreAuthorize} decision: Spring's SpEL manager, which
+ * builds an evaluation context per call, against the compiled predicate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PreAuthorizeBenchmark {
+
+    @Param({"getAllowedForAll", "getUserOnlyData", "checkUserData"})
+    public String method;
+
+    private PreAuthorizeAuthorizationManager spel;
+
+    private CompiledPreAuthorizeManager compiled;
+
+    private MethodInvocation invocation;
+
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(new StaticApplicationContext());
+        spel = new PreAuthorizeAuthorizationManager();
+        spel.setExpressionHandler(expressionHandler);
+        compiled = new CompiledPreAuthorizeManager(spel);
+
+        authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+        MethodSecurityController controller = new MethodSecurityController();
+        if (method.equals("checkUserData")) {
+            invocation = new SimpleMethodInvocation(controller, method(method, String.class), "user");
+        } else {
+            invocation = new SimpleMethodInvocation(controller, method(method));
+        }
+    }
+
+    @Benchmark
+    public AuthorizationDecision spel() {
+        return spel.check(() -> authentication, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision compiled() {
+        return compiled.check(() -> authentication, invocation);
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) {
+        try {
+            return MethodSecurityController.class.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.config.WebSecurityConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.firewall.RequestRejectedException;
+import org.springframework.security.web.firewall.StrictHttpFirewall;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Decisions of the route table configured in {@link WebSecurityConfig}, per
+ * path and caller, checked against the expected outcome and against the
+ * equivalent ordered {@code requestMatchers} chain it replaced.
+ */
+class RouteAuthorizationManagerTest {
+
+    private static final Map<String, Authentication> CALLERS = Map.of(
+            "anonymous", new AnonymousAuthenticationToken("key", "anonymousUser",
+                                                          AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")),
+            "user", UsernamePasswordAuthenticationToken.authenticated("user", null,
+                                                                       AuthorityUtils.createAuthorityList("ROLE_USER")),
+            "admin", UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                                                                        AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+    private final RouteAuthorizationManager routes = new WebSecurityConfig().routeAuthorizationManager();
+
+    // The configuration as an ordered ant-matcher chain, first match wins
+    private final AuthorizationManager<HttpServletRequest> reference =
+            RequestMatcherDelegatingAuthorizationManager.builder()
+                    .add(new AntPathRequestMatcher("/api/auth/tokens:batchVerify"),
+                         AuthenticatedAuthorizationManager.authenticated())
+                    .add(new AntPathRequestMatcher("/api/auth/**"), (authentication, request) -> granted())
+                    .add(new AntPathRequestMatcher("/api/public/**"), (authentication, request) -> granted())
+                    .add(new AntPathRequestMatcher("/h2-console/**"), (authentication, request) -> granted())
+                    .add(new AntPathRequestMatcher("/api/basic/**"), AuthenticatedAuthorizationManager.authenticated())
+                    .add(new AntPathRequestMatcher("/api/jwt/**"), AuthenticatedAuthorizationManager.authenticated())
+                    .add(new AntPathRequestMatcher("/api/method/**"), AuthenticatedAuthorizationManager.authenticated())
+                    .add(new AntPathRequestMatcher("/api/admin/**"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+                    .add(new AntPathRequestMatcher("/actuator/health/**"), (authentication, request) -> granted())
+                    .add(new AntPathRequestMatcher("/actuator/**"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+                    .add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated())
+                    .build();
+
+    @ParameterizedTest(name = "{0}: anonymous={1} user={2} admin={3}")
+    @CsvSource({
+            "/api/public/info,                 true,  true,  true",
+            "/api/public,                      true,  true,  true",
+            "/api/public/jwks.json,            true,  true,  true",
+            "/api/auth/signin,                 true,  true,  true",
+            "/api/auth/refresh,                true,  true,  true",
+            "/api/auth/tokens:batchVerify,     false, true,  true",
+            "/api/auth/tokens:batchVerify/x,   true,  true,  true",
+            "/h2-console/login.do,             true,  true,  true",
+            "/api/basic/hello,                 false, true,  true",
+            "/api/jwt/profile,                 false, true,  true",
+            "/api/jwt,                         false, true,  true",
+            "/api/method/user,                 false, true,  true",
+            "/api/admin/users,                 false, false, true",
+            "/api/admin,                       false, false, true",
+            "/api/admin/,                      false, false, true",
+            "/api/admin/tokens:batchIssue,     false, false, true",
+            "/api/administrator,               false, true,  true",
+            "/api//admin/users,                false, false, true",
+            "//api/public/info,                true,  true,  true",
+            "/api/admin//users,                false, false, true",
+            "/actuator/health,                 true,  true,  true",
+            "/actuator/health/liveness,        true,  true,  true",
+            "/actuator/metrics,                false, false, true",
+            "/actuator/metrics/users.total,    false, false, true",
+            "/api,                             false, true,  true",
+            "/unknown/path,                    false, true,  true",
+            "/,                                false, true,  true",
+    })
+    void decidesLikeTheRequestMatcherChain(String path, boolean anonymous, boolean user, boolean admin) {
+        Map<String, Boolean> expected = Map.of("anonymous", anonymous, "user", user, "admin", admin);
+        expected.forEach((caller, granted) -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            request.setServletPath(path);
+            Authentication authentication = CALLERS.get(caller);
+
+            // The trie collapses repeated slashes itself; the chain gets them collapsed by the container
+            MockHttpServletRequest normalized = new MockHttpServletRequest("GET", path.replaceAll("/{2,}", "/"));
+            normalized.setServletPath(normalized.getRequestURI());
+
+            boolean trie = routes.check(() -> authentication, new RequestAuthorizationContext(request)).isGranted();
+            boolean chain = reference.check(() -> authentication, normalized).isGranted();
+
+            assertThat(trie).as("%s as %s", path, caller).isEqualTo(granted);
+            assertThat(chain).as("reference chain for %s as %s", path, caller).isEqualTo(granted);
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/api//admin/users", "//api/public/info", "/api/public/../admin/users"})
+    void firewallRejectsPathsThatAreNotNormalized(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+
+        assertThatThrownBy(() -> new StrictHttpFirewall().getFirewalledRequest(request))
+                .isInstanceOf(RequestRejectedException.class);
+    }
+
+    @Test
+    void unauthenticatedTokenIsDeniedOnAuthenticatedRoutes() {
+        UsernamePasswordAuthenticationToken unauthenticated =
+                UsernamePasswordAuthenticationToken.unauthenticated("user", "password");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jwt/profile");
+        request.setServletPath("/api/jwt/profile");
+
+        assertThat(routes.check(() -> unauthenticated, new RequestAuthorizationContext(request)).isGranted()).isFalse();
+    }
+
+    @Test
+    void mostSpecificPatternWins() {
+        RouteAuthorizationManager manager = RouteAuthorizationManager.builder()
+                .permitAll("/a/**")
+                .rule(RouteAuthorizationManager.Rule.denyAll(), "/a/b/**")
+                .permitAll("/a/b/c")
+                .build();
+
+        assertThat(manager.resolve("/a/x").check(() -> null).isGranted()).isTrue();
+        assertThat(manager.resolve("/a/b/x").check(() -> null).isGranted()).isFalse();
+        assertThat(manager.resolve("/a/b/c").check(() -> null).isGranted()).isTrue();
+        assertThat(manager.resolve("/a/b/c/d").check(() -> null).isGranted()).isFalse();
+    }
+
+    @Test
+    void rejectsUnsupportedAndDuplicatePatterns() {
+        assertThatThrownBy(() -> RouteAuthorizationManager.builder().permitAll("/a/*/b"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RouteAuthorizationManager.builder().permitAll("/a/{id}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RouteAuthorizationManager.builder().permitAll("a/b"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RouteAuthorizationManager.builder().permitAll("/a/**").authenticated("/a/**"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AuthorizationDecision granted() {
+        return new AuthorizationDecision(true);
+    }
+}
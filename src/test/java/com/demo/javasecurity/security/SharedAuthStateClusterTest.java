@@ -0,0 +1,164 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.JavaSecurityDemoApplication;
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.service.LoginAttemptService;
+import com.demo.javasecurity.service.UserDetailsCache;
+import com.demo.javasecurity.service.UserDetailsServiceImpl;
+import com.demo.javasecurity.util.JwtUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two application contexts on one database, joined by the in-process
+ * {@link InMemorySharedAuthState}, as two instances of a cluster would be:
+ * changes made on one must reach the other's near-caches, including
+ * Hibernate's second-level and query caches as the prod profile runs them.
+ */
+class SharedAuthStateClusterTest {
+
+    private static final String DATABASE = "jdbc:h2:mem:shared-auth-state;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext first;
+
+    private static ConfigurableApplicationContext second;
+
+    @TempDir
+    static Path cacheConfig;
+
+    @BeforeAll
+    static void startInstances() throws IOException {
+        first = start("create-drop", "first");
+        // The first instance owns the schema
+        second = start("none", "second");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        second.close();
+        first.close();
+    }
+
+    @Test
+    void revocationReachesTheOtherInstance() {
+        String token = first.getBean(JwtUtil.class).generateTokenFromUsername("user");
+        String tokenId = first.getBean(JwtUtil.class).verifyJwtToken(token).getTokenId();
+        assertThat(second.getBean(TokenRevocationList.class).isRevoked(tokenId)).isFalse();
+
+        first.getBean(TokenRevocationList.class).revokeToken(token);
+
+        // The second instance read the table only at startup, so this came through the shared state
+        assertThat(second.getBean(TokenRevocationList.class).isRevoked(tokenId)).isTrue();
+    }
+
+    @Test
+    void userChangeEvictsTheOtherInstancesCache() {
+        UserDetailsCache cache = second.getBean(UserDetailsCache.class);
+        assertThat(cache.loadUserByUsername("user").isEnabled()).isTrue();
+        assertThat(cache.getIfPresent("user")).isNotNull();
+
+        setEnabled("user", false);
+        try {
+            assertThat(cache.getIfPresent("user")).isNull();
+            assertThat(cache.loadUserByUsername("user").isEnabled()).isFalse();
+        } finally {
+            setEnabled("user", true);
+        }
+    }
+
+    @Test
+    void lockoutOnOneInstanceBlocksSignInOnTheOther() {
+        DaoAuthenticationProvider signIn = signIn(second);
+        Authentication credentials = UsernamePasswordAuthenticationToken.unauthenticated("user", "user123");
+        // Leaves the user in the second instance's query and entity caches
+        assertThat(signIn.authenticate(credentials).isAuthenticated()).isTrue();
+
+        LoginAttemptService loginAttempts = first.getBean(LoginAttemptService.class);
+        for (int i = 0; i < 5; i++) {
+            loginAttempts.loginFailed("user");
+        }
+        try {
+            assertThatThrownBy(() -> signIn.authenticate(credentials)).isInstanceOf(LockedException.class);
+        } finally {
+            User locked = first.getBean(UserRepository.class).findByUsername("user").orElseThrow();
+            loginAttempts.loginSucceeded(locked);
+        }
+
+        assertThat(signIn.authenticate(credentials).isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void userCreatedOnOneInstanceCanSignInOnTheOther() {
+        DaoAuthenticationProvider signIn = signIn(second);
+        Authentication credentials = UsernamePasswordAuthenticationToken.unauthenticated("newcomer", "newcomer123");
+        // Leaves a cached miss in the second instance's query cache
+        assertThatThrownBy(() -> signIn.authenticate(credentials)).isInstanceOf(BadCredentialsException.class);
+
+        UserRepository users = first.getBean(UserRepository.class);
+        String password = first.getBean(PasswordEncoder.class).encode("newcomer123");
+        User newcomer = users.save(new User("newcomer", password, Role.USER));
+        try {
+            assertThat(signIn.authenticate(credentials).isAuthenticated()).isTrue();
+        } finally {
+            users.delete(newcomer);
+        }
+    }
+
+    private static DaoAuthenticationProvider signIn(ConfigurableApplicationContext instance) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(instance.getBean(UserDetailsServiceImpl.class));
+        provider.setPasswordEncoder(instance.getBean(PasswordEncoder.class));
+        return provider;
+    }
+
+    private static void setEnabled(String username, boolean enabled) {
+        UserRepository users = first.getBean(UserRepository.class);
+        User user = users.findByUsername(username).orElseThrow();
+        user.setEnabled(enabled);
+        users.save(user);
+    }
+
+    private static ConfigurableApplicationContext start(String ddlAuto, String name) throws IOException {
+        // JCache shares a cache manager per URI, so each instance gets its own copy of the regions
+        Path regions = cacheConfig.resolve(name + ".conf");
+        try (InputStream config = SharedAuthStateClusterTest.class.getResourceAsStream("/hibernate-cache.conf")) {
+            Files.copy(config, regions);
+        }
+        return new SpringApplicationBuilder(JavaSecurityDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + DATABASE,
+                     "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                     "--spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                     "--spring.jpa.properties.hibernate.cache.use_query_cache=true",
+                     "--spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+                     "--spring.jpa.properties.hibernate.javax.cache.provider="
+                             + "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+                     "--spring.jpa.properties.hibernate.javax.cache.uri=" + regions.toUri(),
+                     "--spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+                     "--security.shared-state.store=memory",
+                     "--audit.directory=" + cacheConfig.resolve(name + "-audit"),
+                     "--security.password.bcrypt-strength=4",
+                     "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,119 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.RevokedToken;
+import com.demo.javasecurity.repository.RevokedTokenRepository;
+import com.demo.javasecurity.util.BloomFilter;
+import com.demo.javasecurity.util.JwtFixtures;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import com.demo.javasecurity.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Revocation checks without a database: the Bloom filter may only ever speed
+ * up the answer, never change it, and entries last exactly as long as the
+ * token they revoke.
+ */
+class TokenRevocationListTest {
+
+    private final JwtUtil jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512));
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+
+    private final InMemorySharedAuthState sharedAuthState = new InMemorySharedAuthState();
+
+    private final InMemorySharedAuthState peerSharedAuthState = new InMemorySharedAuthState();
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void createList() {
+        revocationList = revocationList(repository, sharedAuthState);
+    }
+
+    // Other test contexts in this JVM must not receive these revocations
+    @AfterEach
+    void leaveCluster() {
+        sharedAuthState.shutdown();
+        peerSharedAuthState.shutdown();
+    }
+
+    @Test
+    void aRevokedTokenIsRejectedUntilItsExpiry() {
+        String token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+        String tokenId = jwtUtil.verifyJwtToken(token).getTokenId();
+        assertThat(revocationList.isRevoked(tokenId)).isFalse();
+
+        Instant revokedUntil = revocationList.revokeToken(token);
+
+        assertThat(revokedUntil).isEqualTo(jwtUtil.verifyJwtToken(token).getExpiresAt());
+        assertThat(revocationList.isRevoked(tokenId)).isTrue();
+        verify(repository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void anUnrevokedTokenPassesDespiteAFilterFalsePositive() {
+        revocationList.revoke("revoked-jti", Instant.now().plusSeconds(60));
+        // Stands in for a hash collision: the filter claims a jti that was never revoked
+        filter(revocationList).put("innocent-jti");
+
+        assertThat(revocationList.isRevoked("innocent-jti")).isFalse();
+        assertThat(revocationList.isRevoked("revoked-jti")).isTrue();
+        assertThat(revocationList.stats()).containsEntry("falsePositives", 1L).containsEntry("filterHits", 2L);
+    }
+
+    @Test
+    void entriesArePurgedOnceTheTokenHasExpired() throws InterruptedException {
+        assertThat(revocationList.revoke("expired-jti", Instant.now().minusSeconds(1))).isFalse();
+        assertThat(revocationList.revoke("short-jti", Instant.now().plusMillis(100))).isTrue();
+        revocationList.revoke("long-jti", Instant.now().plusSeconds(60));
+
+        Thread.sleep(150);
+        revocationList.purgeExpired();
+
+        assertThat(revocationList.isRevoked("short-jti")).isFalse();
+        assertThat(revocationList.isRevoked("long-jti")).isTrue();
+        assertThat(revocationList.stats()).containsEntry("entries", 1);
+        // The filter was rebuilt without the purged entry
+        assertThat(filter(revocationList).mightContain("short-jti")).isFalse();
+        verify(repository).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void aRevocationReachesAPeerWithoutItsDatabase() {
+        RevokedTokenRepository peerRepository = mock(RevokedTokenRepository.class);
+        TokenRevocationList peer = revocationList(peerRepository, peerSharedAuthState);
+
+        revocationList.revoke("shared-jti", Instant.now().plusSeconds(60));
+
+        assertThat(peer.isRevoked("shared-jti")).isTrue();
+        verify(peerRepository, never()).save(any(RevokedToken.class));
+    }
+
+    private TokenRevocationList revocationList(RevokedTokenRepository revokedTokens, InMemorySharedAuthState shared) {
+        shared.init();
+        TokenRevocationList list = new TokenRevocationList();
+        ReflectionTestUtils.setField(list, "revokedTokenRepository", revokedTokens);
+        ReflectionTestUtils.setField(list, "jwtUtils", jwtUtil);
+        ReflectionTestUtils.setField(list, "sharedAuthState", shared);
+        ReflectionTestUtils.setField(list, "expectedEntries", 1000L);
+        ReflectionTestUtils.setField(list, "falsePositiveRate", 0.01);
+        list.init();
+        return list;
+    }
+
+    private static BloomFilter filter(TokenRevocationList list) {
+        return (BloomFilter) ReflectionTestUtils.getField(list, "filter");
+    }
+}
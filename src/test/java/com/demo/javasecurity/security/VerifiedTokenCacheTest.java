@@ -0,0 +1,88 @@
+package com.demo.javasecurity.security;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.util.JwtFixtures;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import com.demo.javasecurity.util.JwtUtil;
+import com.demo.javasecurity.util.JwtVerificationResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Cached verification outcomes: a valid result lives until the token's exp,
+ * a rejection only for the negative TTL, and distinct tokens never share an
+ * entry.
+ */
+class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = spy(JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512)));
+
+    @Test
+    void aValidTokenIsVerifiedOnce() throws Exception {
+        VerifiedTokenCache cache = cache(Duration.ofSeconds(10));
+        String token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+
+        JwtVerificationResult first = cache.verify(token);
+
+        assertThat(first.isValid()).isTrue();
+        assertThat(cache.verify(token)).isSameAs(first);
+        verify(jwtUtil, times(1)).verifyJwtToken(token);
+    }
+
+    @Test
+    void aRejectionIsForgottenAfterTheNegativeTtl() throws Exception {
+        VerifiedTokenCache cache = cache(Duration.ofMillis(200));
+        String forged = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER) + "x";
+
+        assertThat(cache.verify(forged).isValid()).isFalse();
+        assertThat(cache.verify(forged).isValid()).isFalse();
+        verify(jwtUtil, times(1)).verifyJwtToken(forged);
+
+        Thread.sleep(300);
+        assertThat(cache.verify(forged).isValid()).isFalse();
+        verify(jwtUtil, times(2)).verifyJwtToken(forged);
+    }
+
+    @Test
+    void aValidResultExpiresWithTheToken() throws Exception {
+        VerifiedTokenCache cache = cache(Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 1000);
+        String token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+
+        assertThat(cache.verify(token).isValid()).isTrue();
+        // exp has whole-second precision, so wait past the next second boundary
+        Thread.sleep(2100);
+
+        JwtVerificationResult expired = cache.verify(token);
+        assertThat(expired.isValid()).isFalse();
+        assertThat(expired.getFailureReason()).isEqualTo(JwtVerificationResult.FailureReason.EXPIRED);
+        verify(jwtUtil, times(2)).verifyJwtToken(token);
+    }
+
+    @Test
+    void tokensDifferingOnlyInNonAsciiCharactersDoNotShareAnEntry() throws Exception {
+        VerifiedTokenCache cache = cache(Duration.ofSeconds(10));
+
+        cache.verify("token-é");
+        cache.verify("token-è");
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private VerifiedTokenCache cache(Duration negativeTtl) throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "jwtUtils", jwtUtil);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maximumSize", 1000L);
+        ReflectionTestUtils.setField(cache, "negativeTtl", negativeTtl);
+        cache.init();
+        return cache;
+    }
+}
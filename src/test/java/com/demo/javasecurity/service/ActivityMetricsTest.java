@@ -0,0 +1,83 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.demo.javasecurity.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dashboard counters: active users are estimated over the sliding window and
+ * age out with it, and the user total follows change events without a query.
+ */
+class ActivityMetricsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void activeUsersAreCountedOnceAndPublishedAsAGauge() {
+        ActivityMetrics metrics = metrics(Duration.ofMinutes(15));
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 2_000; i++) {
+                metrics.recordAuthenticated("user-" + i);
+            }
+        }
+
+        assertThat((double) metrics.activeUsers()).isCloseTo(2_000, within(100.0));
+        assertThat(meterRegistry.get("users.active").gauge().value()).isEqualTo(metrics.activeUsers());
+        assertThat(meterRegistry.get("auth.requests.authenticated").functionCounter().count()).isEqualTo(6_000);
+    }
+
+    @Test
+    void usersAgeOutOfTheWindow() throws Exception {
+        ActivityMetrics metrics = metrics(Duration.ofMillis(400));
+        for (int i = 0; i < 100; i++) {
+            metrics.recordAuthenticated("user-" + i);
+        }
+        assertThat((double) metrics.activeUsers()).isCloseTo(100, within(5.0));
+
+        // Past both the window and the one-second reuse of the last estimate
+        Thread.sleep(1_100);
+        metrics.recordAuthenticated("late");
+
+        assertThat(metrics.activeUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void theUserTotalFollowsChangeEvents() {
+        when(userRepository.count()).thenReturn(2L);
+        ActivityMetrics metrics = metrics(Duration.ofMinutes(15));
+
+        metrics.onUserChanged(new UserChangedEvent(3L, "new", UserChangedEvent.Type.CREATED));
+        metrics.onUserChanged(UserChangedEvent.bulk(UserChangedEvent.Type.CREATED, 500));
+        metrics.onUserChanged(new UserChangedEvent(3L, "new", UserChangedEvent.Type.UPDATED));
+        metrics.onUserChanged(new UserChangedEvent(3L, "new", UserChangedEvent.Type.DELETED));
+
+        assertThat(metrics.totalUsers()).isEqualTo(502);
+        assertThat(meterRegistry.get("users.total").gauge().value()).isEqualTo(502);
+
+        when(userRepository.count()).thenReturn(7L);
+        metrics.resyncTotalUsers();
+        assertThat(metrics.totalUsers()).isEqualTo(7);
+    }
+
+    private ActivityMetrics metrics(Duration window) {
+        ActivityMetrics metrics = new ActivityMetrics();
+        ReflectionTestUtils.setField(metrics, "userRepository", userRepository);
+        ReflectionTestUtils.setField(metrics, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(metrics, "window", window);
+        ReflectionTestUtils.setField(metrics, "bucketCount", 4);
+        metrics.init();
+        return metrics;
+    }
+}
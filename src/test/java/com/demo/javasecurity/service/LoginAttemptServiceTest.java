@@ -0,0 +1,108 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.security.TokenAccountStatusChecker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Lockout bookkeeping against the in-memory database: concurrent failures
+ * must all be counted, and a lock must not affect token holders.
+ */
+@SpringBootTest(properties = {
+        "security.login.lockout.max-failures=5",
+        "security.password.bcrypt-strength=4"
+})
+class LoginAttemptServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int FAILURES_PER_THREAD = 25;
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void reset() {
+        userRepository.findByUsername("user").ifPresent(user -> userRepository.resetFailedAttempts(user.getId()));
+    }
+
+    @Test
+    void concurrentFailuresAreAllCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < FAILURES_PER_THREAD; j++) {
+                        loginAttemptService.loginFailed("user");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        User user = userRepository.findByUsername("user").orElseThrow();
+        assertThat(user.getFailedAttempts()).isEqualTo(THREADS * FAILURES_PER_THREAD);
+        assertThat(user.isAccountNonLocked()).isFalse();
+    }
+
+    @Test
+    void lockedAccountStillPassesTheTokenChecks() {
+        for (int i = 0; i < 5; i++) {
+            loginAttemptService.loginFailed("user");
+        }
+
+        User user = userRepository.findByUsername("user").orElseThrow();
+        assertThat(user.isAccountNonLocked()).isFalse();
+        assertThatCode(() -> new TokenAccountStatusChecker().check(user)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successClearsTheLock() {
+        for (int i = 0; i < 5; i++) {
+            loginAttemptService.loginFailed("user");
+        }
+        loginAttemptService.loginSucceeded(userRepository.findByUsername("user").orElseThrow());
+
+        User user = userRepository.findByUsername("user").orElseThrow();
+        assertThat(user.getFailedAttempts()).isZero();
+        assertThat(user.isAccountNonLocked()).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.RefreshToken;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.RefreshTokenRepository;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.security.InvalidRefreshTokenException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Refresh token rotation against the in-memory database: a token exchanged a
+ * second time must take its whole family down with it, and that revocation
+ * must be committed even though the exchange fails.
+ */
+@SpringBootTest(properties = "security.password.bcrypt-strength=4")
+@AutoConfigureMockMvc
+class RefreshTokenServiceTest {
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void findUser() {
+        user = userRepository.findByUsername("user").orElseThrow();
+    }
+
+    @AfterEach
+    void revokeTokens() {
+        refreshTokenService.revokeAll(user.getId());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).getRefreshToken();
+        // Another sign-in of the same user is a separate family
+        String otherDevice = refreshTokenService.issue(user);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("already been used");
+
+        // Read in a new transaction: the delete was committed despite the exception
+        assertThat(tokensOf(user)).hasSize(1);
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("Unknown");
+        assertThat(refreshTokenService.rotate(otherDevice).getUser().getUsername()).isEqualTo("user");
+    }
+
+    @Test
+    void aReplayedTokenIsRefusedWith401() throws Exception {
+        String first = refreshTokenService.issue(user);
+
+        String second = objectMapper.readTree(refresh(first).andExpect(status().isOk())
+                                                      .andExpect(jsonPath("$.username").value("user"))
+                                                      .andReturn().getResponse().getContentAsString())
+                .path("refreshToken").asText();
+        assertThat(second).isNotBlank().isNotEqualTo(first);
+
+        refresh(first).andExpect(status().isUnauthorized());
+        // The family went with the replay, so the legitimate client has to sign in again
+        refresh(second).andExpect(status().isUnauthorized());
+        assertThat(tokensOf(user)).isEmpty();
+    }
+
+    private ResultActions refresh(String token) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh")
+                                       .contentType(MediaType.APPLICATION_JSON)
+                                       .content(objectMapper.writeValueAsString(Map.of("refreshToken", token))));
+    }
+
+    private List<RefreshToken> tokensOf(User owner) {
+        return refreshTokenRepository.findAll().stream()
+                .filter(token -> token.getUserId().equals(owner.getId()))
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.dto.IssuedToken;
+import com.demo.javasecurity.dto.TokenCheckResult;
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import com.demo.javasecurity.security.TokenRevocationList;
+import com.demo.javasecurity.util.JwtFixtures;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import com.demo.javasecurity.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch verification and issuance must answer each entry as the single-token
+ * path would, in request order, including above the threshold where the work
+ * is spread across the batch pool.
+ */
+class TokenBatchServiceTest {
+
+    // Above JwtFixtures' parallel threshold of 64
+    private static final int BATCH = 200;
+
+    private final JwtUtil jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.ES256));
+
+    private final TokenRevocationList revocationList = mock(TokenRevocationList.class);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final TokenBatchService service = new TokenBatchService();
+
+    @BeforeEach
+    void wire() {
+        ReflectionTestUtils.setField(service, "jwtUtils", jwtUtil);
+        ReflectionTestUtils.setField(service, "tokenRevocationList", revocationList);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+    }
+
+    @Test
+    void verificationKeepsRequestOrderAndReportsEachRejection() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            String token = jwtUtil.generateTokenFromUsername("user-" + i, (long) i, Role.USER);
+            // Every third token is tampered with, every fifth revoked
+            tokens.add(i % 3 == 0 ? token.substring(0, token.length() - 4) + "AAAA" : token);
+            if (i % 5 == 0) {
+                when(revocationList.isRevoked(jwtUtil.verifyJwtToken(token).getTokenId())).thenReturn(true);
+            }
+        }
+
+        List<TokenCheckResult> results = service.verify(tokens);
+
+        assertThat(results).hasSize(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            TokenCheckResult result = results.get(i);
+            if (i % 3 == 0) {
+                assertThat(result.isValid()).as("token %d", i).isFalse();
+            } else if (i % 5 == 0) {
+                assertThat(result.isValid()).as("token %d", i).isFalse();
+                assertThat(result.getReason()).isEqualTo("REVOKED_TOKEN");
+            } else {
+                assertThat(result.isValid()).as("token %d", i).isTrue();
+                assertThat(result.getSubject()).isEqualTo("user-" + i);
+            }
+        }
+    }
+
+    @Test
+    void issuanceSkipsUnknownAndDisabledUsersInPlace() {
+        List<String> usernames = new ArrayList<>();
+        List<User> stored = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            usernames.add("user-" + i);
+            // Every fourth user does not exist, every seventh is disabled
+            if (i % 4 != 0) {
+                User user = new User("user-" + i, "", Role.USER);
+                user.setId((long) i);
+                user.setEnabled(i % 7 != 0);
+                stored.add(user);
+            }
+        }
+        when(userRepository.findByUsernameIn(anyList())).thenReturn(stored);
+
+        List<IssuedToken> issued = service.issue(usernames);
+
+        assertThat(issued).extracting(IssuedToken::getUsername).containsExactlyElementsOf(usernames);
+        for (int i = 0; i < BATCH; i++) {
+            IssuedToken token = issued.get(i);
+            if (i % 4 == 0) {
+                assertThat(token.getError()).isEqualTo("User not found");
+            } else if (i % 7 == 0) {
+                assertThat(token.getError()).isEqualTo("User is disabled");
+            } else {
+                assertThat(token.getToken()).as("user %d", i).isNotNull();
+                assertThat(jwtUtil.verifyJwtToken(token.getToken()).getSubject()).isEqualTo("user-" + i);
+            }
+        }
+    }
+}
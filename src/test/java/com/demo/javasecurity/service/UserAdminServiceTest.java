@@ -0,0 +1,130 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.dto.AdminResponse;
+import com.demo.javasecurity.dto.UserSummary;
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pagination of the admin user list: following nextCursor visits every
+ * user once in id order, and rows deleted or added behind the cursor do not
+ * shift the pages still to come.
+ */
+@SpringBootTest(properties = {
+        "admin.users.page-size=4",
+        "admin.users.max-page-size=10",
+        "security.password.bcrypt-strength=4"
+})
+class UserAdminServiceTest {
+
+    private static final int USERS = 15;
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private UserAdminService userAdminService;
+
+    @Autowired
+    private AdminOperations adminOperations;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void createUsers() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("paged-" + i, "", Role.USER));
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAll(userRepository.findByUsernameIn(usernames()));
+    }
+
+    @Test
+    void pageSizeFallsBackToTheDefaultAndIsCapped() {
+        assertThat(userAdminService.pageSize(null)).isEqualTo(4);
+        assertThat(userAdminService.pageSize(0)).isEqualTo(4);
+        assertThat(userAdminService.pageSize(7)).isEqualTo(7);
+        assertThat(userAdminService.pageSize(5000)).isEqualTo(10);
+    }
+
+    @Test
+    void followingTheCursorVisitsEveryUserOnceInIdOrder() {
+        List<Long> expected = userRepository.findAll().stream().map(User::getId).sorted().toList();
+
+        List<Long> visited = new ArrayList<>();
+        Long cursor = 0L;
+        while (cursor != null) {
+            AdminResponse.UsersPage page = adminOperations.usersPage(cursor, 3);
+            assertThat(page.count()).isLessThanOrEqualTo(3);
+            page.users().forEach(user -> visited.add(user.getId()));
+            cursor = page.nextCursor();
+        }
+
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void changesBehindTheCursorDoNotShiftLaterPages() {
+        // Start among the users created here, so the seeded ones are left alone
+        long start = userRepository.findByUsername("paged-0").orElseThrow().getId() - 1;
+        AdminResponse.UsersPage first = adminOperations.usersPage(start, 5);
+        List<Long> following = userAdminService.listUsers(first.nextCursor(), 5).stream()
+                .map(UserSummary::getId)
+                .toList();
+
+        // An offset page would lose a row here, and then see one twice
+        userRepository.deleteById(first.users().get(0).getId());
+        userRepository.save(new User("paged-late", "", Role.USER));
+        try {
+            assertThat(adminOperations.usersPage(first.nextCursor(), 5).users())
+                    .extracting(UserSummary::getId)
+                    .containsExactlyElementsOf(following);
+        } finally {
+            userRepository.findByUsername("paged-late").ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void streamingReturnsTheSameUsersAsPaging() {
+        List<Long> streamed = new ArrayList<>();
+        userAdminService.streamUsers(0, user -> streamed.add(user.getId()));
+
+        assertThat(streamed).containsExactlyElementsOf(
+                userAdminService.listUsers(0, 10_000).stream().map(UserSummary::getId).toList());
+    }
+
+    private static List<String> usernames() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            usernames.add("paged-" + i);
+        }
+        return usernames;
+    }
+}
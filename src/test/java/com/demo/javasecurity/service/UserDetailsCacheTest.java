@@ -0,0 +1,104 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.demo.javasecurity.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The JWT filter's user cache against the in-memory database: entries are
+ * shared by repeated lookups, dropped only once a change is committed, and
+ * unknown usernames are never cached.
+ */
+@SpringBootTest(properties = "security.password.bcrypt-strength=4")
+class UserDetailsCacheTest {
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void enableUser() {
+        setEnabled(true);
+        userDetailsCache.invalidateAll();
+    }
+
+    @Test
+    void repeatedLookupsShareOneEntryWithoutThePassword() {
+        UserDetails first = userDetailsCache.loadUserByUsername("user");
+
+        assertThat(userDetailsCache.loadUserByUsername("user")).isSameAs(first);
+        assertThat(first.getPassword()).isEmpty();
+    }
+
+    @Test
+    void anEntryIsDroppedOnlyWhenTheChangeCommits() {
+        assertThat(userDetailsCache.loadUserByUsername("user").isEnabled()).isTrue();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            setEnabled(false);
+            userRepository.flush();
+            // Still cached: dropping it now would let a concurrent miss re-cache the old row
+            assertThat(userDetailsCache.getIfPresent("user")).isNotNull();
+        });
+
+        assertThat(userDetailsCache.getIfPresent("user")).isNull();
+        assertThat(userDetailsCache.loadUserByUsername("user").isEnabled()).isFalse();
+    }
+
+    @Test
+    void unknownUsernamesAreNotCached() {
+        assertThatThrownBy(() -> userDetailsCache.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        assertThat(userDetailsCache.getIfPresent("ghost")).isNull();
+    }
+
+    @Test
+    void aChangeWithoutAUserDropsEveryEntryButANewUserDropsNone() {
+        userDetailsCache.loadUserByUsername("user");
+        userDetailsCache.loadUserByUsername("admin");
+
+        userDetailsCache.onUserChanged(UserChangedEvent.bulk(UserChangedEvent.Type.CREATED, 10));
+        assertThat(userDetailsCache.getIfPresent("user")).isNotNull();
+
+        userDetailsCache.onUserChanged(new UserChangedEvent(null, null, UserChangedEvent.Type.UPDATED));
+        assertThat(userDetailsCache.getIfPresent("user")).isNull();
+        assertThat(userDetailsCache.getIfPresent("admin")).isNull();
+    }
+
+    private void setEnabled(boolean enabled) {
+        User user = userRepository.findByUsername("user").orElseThrow();
+        user.setEnabled(enabled);
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.dto.UserImportResult;
+import com.demo.javasecurity.model.UserChangedEvent;
+import com.demo.javasecurity.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Imports against the in-memory database: only hashes the password encoder
+ * can verify are stored, and each committed chunk is announced once.
+ */
+@SpringBootTest(properties = {
+        "user-import.batch-size=2",
+        "user-import.hash-threads=1",
+        "security.password.bcrypt-strength=4"
+})
+@RecordApplicationEvents
+class UserImportServiceTest {
+
+    @TempDir
+    static Path auditDirectory;
+
+    // Cached test contexts stay open together, and an audit directory takes one writer
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) {
+        registry.add("audit.directory", auditDirectory::toString);
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @AfterEach
+    void deleteImported() {
+        userRepository.deleteAll(userRepository.findByUsernameIn(
+                List.of("hashed", "legacy", "plain", "md5", "unprefixed", "truncated", "first", "second", "third")));
+    }
+
+    @Test
+    void onlyHashesTheEncoderCanVerifyAreStored() {
+        String bcrypt = passwordEncoder.encode("secret123");
+        String legacy = bcrypt.substring("{bcrypt}".length());
+        UserImportResult result = importCsv(
+                "username,password,passwordHash",
+                "hashed,," + bcrypt,
+                "legacy,," + legacy,
+                "plain,secret123,",
+                "md5,,{MD5}5ebe2294ecd0e0f08eab7690d2a6ee69",
+                "unprefixed,,5ebe2294ecd0e0f08eab7690d2a6ee69",
+                "truncated,,{bcrypt}$2a$04$abc");
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(UserImportResult.RecordError::getRecord).containsExactly(4L, 5L, 6L);
+        assertThat(result.getErrors().get(0).getMessage()).contains("{MD5}");
+        for (String username : List.of("hashed", "legacy", "plain")) {
+            String stored = userRepository.findByUsername(username).orElseThrow().getPassword();
+            assertThat(passwordEncoder.matches("secret123", stored)).as(username).isTrue();
+        }
+    }
+
+    @Test
+    void eachCommittedChunkPublishesOneBulkChange() {
+        UserImportResult result = importCsv("username,password", "first,secret123", "second,secret123",
+                                            "third,secret123");
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(events.stream(UserChangedEvent.class))
+                .extracting(UserChangedEvent::getType, UserChangedEvent::getUsername, UserChangedEvent::getCount)
+                .containsExactly(tuple(UserChangedEvent.Type.CREATED, null, 2),
+                                 tuple(UserChangedEvent.Type.CREATED, null, 1));
+    }
+
+    private UserImportResult importCsv(String... lines) {
+        byte[] csv = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return userImportService.importUsers(new ByteArrayInputStream(csv), UserImportService.Format.CSV, 0);
+    }
+}
@@ -0,0 +1,112 @@
+package com.demo.javasecurity.service;
+
+import com.demo.javasecurity.JavaSecurityDemoApplication;
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.model.User;
+import com.demo.javasecurity.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the per-request user lookups under concurrency, against the prod
+ * profile on an H2 file database standing in for the real one: the token path
+ * (auth-column projection) and the sign-in path (full entity), with Hibernate's
+ * second-level and query cache on and off. Sample mode reports p50/p99.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserLookupBenchmark {
+
+    private static final int USERS = 1_000;
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private Path directory;
+
+    private ConfigurableApplicationContext context;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    private String[] usernames;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("user-lookup-benchmark");
+        // Arguments, not builder properties, so they override application-prod.properties
+        context = new SpringApplicationBuilder(JavaSecurityDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .run("--spring.datasource.url=jdbc:h2:file:" + directory.resolve("db"),
+                     "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                     "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                     // Hibernate resolves the classpath: URI only inside the packaged jar
+                     "--spring.jpa.properties.hibernate.javax.cache.uri="
+                             + UserLookupBenchmark.class.getResource("/hibernate-cache.conf"),
+                     "--security.password.bcrypt-strength=4",
+                     "--logging.level.root=WARN");
+        userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        usernames = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            usernames[i] = "bench-" + i;
+            users.add(new User(usernames[i], "{noop}password", i % 10 == 0 ? Role.ADMIN : Role.USER));
+        }
+        context.getBean(UserRepository.class).saveAll(users);
+        // Start from a warm cache, as a long-running node would be
+        for (String username : usernames) {
+            userDetailsService.loadPrincipalByUsername(username);
+            userDetailsService.loadUserByUsername(username);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public UserDetails principalLookup() {
+        return userDetailsService.loadPrincipalByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public UserDetails fullEntityLookup() {
+        return userDetailsService.loadUserByUsername(randomUsername());
+    }
+
+    private String randomUsername() {
+        return usernames[ThreadLocalRandom.current().nextInt(USERS)];
+    }
+}
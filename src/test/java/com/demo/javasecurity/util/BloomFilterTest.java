@@ -0,0 +1,46 @@
+package com.demo.javasecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The revocation fast path relies on the filter never missing an element and
+ * on its false-positive rate staying near the one it was sized for.
+ */
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+    private static final int PROBES = 100_000;
+
+    @Test
+    void everyInsertedElementIsFound() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("jti-" + i);
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("jti-" + i)).as("jti-" + i).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(INSERTIONS);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("jti-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / PROBES).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+}
@@ -0,0 +1,56 @@
+package com.demo.javasecurity.util;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import com.demo.javasecurity.util.JwtUtil.TokenFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issue and verify cost of an HS512 JWT against a {@code ct1.} compact token
+ * carrying the same claims. Setup prints each token's length, the other half
+ * of the trade-off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompactTokenBenchmark {
+
+    @Param({"JWT", "COMPACT"})
+    public TokenFormat format;
+
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512), format, false);
+        token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+        System.out.println(format + " token: " + token.length() + " characters");
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+    }
+
+    @Benchmark
+    public JwtVerificationResult verify() {
+        return jwtUtil.verifyJwtToken(token);
+    }
+}
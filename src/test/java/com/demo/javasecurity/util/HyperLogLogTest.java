@@ -0,0 +1,97 @@
+package com.demo.javasecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The active-users gauge relies on the sketch staying within a few standard
+ * errors across the small and large ranges, ignoring repeats, and merging
+ * buckets without double counting.
+ */
+class HyperLogLogTest {
+
+    // 4096 registers as in ActivityMetrics, about 1.6% standard error
+    private static final int PRECISION = 12;
+
+    @Test
+    void estimatesStayWithinTheExpectedError() {
+        for (int cardinality : new int[] {10, 100, 1_000, 10_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog(PRECISION);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add("user-" + i);
+            }
+
+            // About three standard errors, with a floor for the exact small range
+            assertThat((double) sketch.estimate()).as("%d users", cardinality)
+                    .isCloseTo(cardinality, within(Math.max(1.0, cardinality * 0.05)));
+        }
+    }
+
+    @Test
+    void repeatsAreNotCounted() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 500; i++) {
+                sketch.add("user-" + i);
+            }
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(500, within(25.0));
+    }
+
+    @Test
+    void mergingOverlappingSketchesCountsTheUnion() {
+        HyperLogLog first = new HyperLogLog(PRECISION);
+        HyperLogLog second = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 6_000; i++) {
+            first.add("user-" + i);
+        }
+        for (int i = 4_000; i < 10_000; i++) {
+            second.add("user-" + i);
+        }
+
+        int[] registers = new int[first.registerCount()];
+        first.mergeInto(registers);
+        second.mergeInto(registers);
+
+        assertThat((double) HyperLogLog.estimate(registers)).isCloseTo(10_000, within(500.0));
+    }
+
+    @Test
+    void concurrentAddsLoseNoRegisterUpdates() throws Exception {
+        HyperLogLog shared = new HyperLogLog(PRECISION);
+        HyperLogLog sequential = new HyperLogLog(PRECISION);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 5_000;
+            threads.add(new Thread(() -> {
+                for (int i = offset; i < offset + 5_000; i++) {
+                    shared.add("user-" + i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < 20_000; i++) {
+            sequential.add("user-" + i);
+        }
+
+        // Registers only ever rise to a maximum, so the order of adds does not matter
+        assertThat(shared.estimate()).isEqualTo(sequential.estimate());
+    }
+
+    @Test
+    void precisionOutsideTheSupportedRangeIsRejected() {
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(19)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new HyperLogLog(4).estimate()).isZero();
+    }
+}
@@ -0,0 +1,51 @@
+package com.demo.javasecurity.util;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * {@link JwtKeyRing} and {@link JwtUtil} wired by hand, for tests and
+ * benchmarks that do not start a Spring context.
+ */
+public final class JwtFixtures {
+
+    public static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    public static final int EXPIRATION_MS = 900_000;
+
+    private JwtFixtures() {
+    }
+
+    public static JwtKeyRing keyRing(JwtKeyRing.SigningAlgorithm algorithm) {
+        return keyRing(algorithm, null);
+    }
+
+    public static JwtKeyRing keyRing(JwtKeyRing.SigningAlgorithm algorithm, Path keyStore) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "keyStore", keyStore != null ? keyStore.toString() : "");
+        ReflectionTestUtils.setField(keyRing, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "signingAlgorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "rotationInterval", Duration.ofHours(24));
+        ReflectionTestUtils.setField(keyRing, "jwtExpirationMs", (long) EXPIRATION_MS);
+        keyRing.init();
+        return keyRing;
+    }
+
+    public static JwtUtil jwtUtil(JwtKeyRing keyRing) {
+        return jwtUtil(keyRing, JwtUtil.TokenFormat.JWT, false);
+    }
+
+    public static JwtUtil jwtUtil(JwtKeyRing keyRing, JwtUtil.TokenFormat format, boolean acceptCompact) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtUtil, "parallelThreshold", 64);
+        ReflectionTestUtils.setField(jwtUtil, "tokenFormat", format);
+        ReflectionTestUtils.setField(jwtUtil, "acceptCompact", acceptCompact);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,124 @@
+package com.demo.javasecurity.util;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Asymmetric keys kept in {@code jwt.key-store} must outlive the process,
+ * including across rotations, and the JWKS ETag must follow the key set.
+ * Instances sharing a key store must converge on the same key set.
+ */
+class JwtKeyRingTest {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(value = SigningAlgorithm.class, names = {"RS256", "ES256"})
+    void tokensVerifyAfterARestart(SigningAlgorithm algorithm) {
+        Path keyStore = directory.resolve("keys.json");
+        JwtKeyRing first = JwtFixtures.keyRing(algorithm, keyStore);
+        String token = JwtFixtures.jwtUtil(first).generateTokenFromUsername("user", 2L, Role.USER);
+
+        JwtKeyRing restarted = JwtFixtures.keyRing(algorithm, keyStore);
+
+        assertThat(restarted.getSigningKey().getKeyId()).isEqualTo(first.getSigningKey().getKeyId());
+        assertThat(restarted.getJwks()).isEqualTo(first.getJwks());
+        assertThat(restarted.getJwksEtag()).isEqualTo(first.getJwksEtag());
+        assertThat(JwtFixtures.jwtUtil(restarted).verifyJwtToken(token).isValid()).isTrue();
+    }
+
+    @Test
+    void rotationIsWrittenBackAndRetiredKeysKeepVerifying() {
+        Path keyStore = directory.resolve("keys.json");
+        JwtKeyRing keyRing = JwtFixtures.keyRing(SigningAlgorithm.ES256, keyStore);
+        String token = JwtFixtures.jwtUtil(keyRing).generateTokenFromUsername("user", 2L, Role.USER);
+        String etag = keyRing.getJwksEtag();
+
+        ReflectionTestUtils.setField(keyRing, "rotationInterval", Duration.ZERO);
+        keyRing.rotateIfDue();
+        JwtKeyRing restarted = JwtFixtures.keyRing(SigningAlgorithm.ES256, keyStore);
+
+        assertThat(keyRing.getJwksEtag()).isNotEqualTo(etag);
+        assertThat(restarted.getSigningKey().getKeyId()).isEqualTo(keyRing.getSigningKey().getKeyId());
+        assertThat(restarted.getJwksEtag()).isEqualTo(keyRing.getJwksEtag());
+        assertThat(JwtFixtures.jwtUtil(restarted).verifyJwtToken(token).isValid()).isTrue();
+    }
+
+    @Test
+    void aRotationOnOneInstanceIsAdoptedByTheOthers() throws Exception {
+        Path keyStore = directory.resolve("keys.json");
+        JwtKeyRing first = JwtFixtures.keyRing(SigningAlgorithm.ES256, keyStore);
+        JwtKeyRing second = JwtFixtures.keyRing(SigningAlgorithm.ES256, keyStore);
+        String token = JwtFixtures.jwtUtil(first).generateTokenFromUsername("user", 2L, Role.USER);
+        String kid = first.getSigningKey().getKeyId();
+        // Both instances find the rotation due at the same check
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode stored = (ObjectNode) mapper.readTree(keyStore.toFile());
+        stored.put("activatedAt", Instant.now().minus(Duration.ofDays(2)).toString());
+        Path edited = directory.resolve("edited.json");
+        mapper.writeValue(edited.toFile(), stored);
+        Files.move(edited, keyStore, StandardCopyOption.REPLACE_EXISTING);
+
+        first.rotateIfDue();
+        second.rotateIfDue();
+        first.rotateIfDue();
+
+        assertThat(first.getSigningKey().getKeyId()).isNotEqualTo(kid);
+        assertThat(second.getSigningKey().getKeyId()).isEqualTo(first.getSigningKey().getKeyId());
+        assertThat(second.getJwksEtag()).isEqualTo(first.getJwksEtag());
+        assertThat(JwtFixtures.keyRing(SigningAlgorithm.ES256, keyStore).getJwksEtag())
+                .isEqualTo(first.getJwksEtag());
+        String rotated = JwtFixtures.jwtUtil(second).generateTokenFromUsername("user", 2L, Role.USER);
+        assertThat(JwtFixtures.jwtUtil(second).verifyJwtToken(token).isValid()).isTrue();
+        assertThat(JwtFixtures.jwtUtil(first).verifyJwtToken(rotated).isValid()).isTrue();
+    }
+
+    @Test
+    void keyStoreIsOnlyReadableByTheOwner() throws Exception {
+        Path keyStore = directory.resolve("keys.json");
+        JwtFixtures.keyRing(SigningAlgorithm.RS256, keyStore);
+
+        assertThat(Files.exists(keyStore)).isTrue();
+        if (Files.getFileStore(keyStore).supportsFileAttributeView("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(keyStore))).isEqualTo("rw-------");
+        }
+        assertThat(Files.list(directory)).containsExactlyInAnyOrder(keyStore, directory.resolve("keys.json.lock"));
+    }
+
+    @Test
+    void keyStoreForAnotherAlgorithmIsRejected() {
+        Path keyStore = directory.resolve("keys.json");
+        JwtFixtures.keyRing(SigningAlgorithm.RS256, keyStore);
+
+        assertThatThrownBy(() -> JwtFixtures.keyRing(SigningAlgorithm.ES256, keyStore))
+                .isInstanceOf(IllegalStateException.class)
+                .hasStackTraceContaining("holds RS256 keys");
+    }
+
+    @Test
+    void inMemoryKeysAreNotShared() {
+        JwtKeyRing first = JwtFixtures.keyRing(SigningAlgorithm.ES256);
+        JwtKeyRing second = JwtFixtures.keyRing(SigningAlgorithm.ES256);
+
+        assertThat(second.getSigningKey().getKeyId()).isNotEqualTo(first.getSigningKey().getKeyId());
+        assertThat(second.getJwksEtag()).isNotEqualTo(first.getJwksEtag());
+    }
+}
@@ -0,0 +1,53 @@
+package com.demo.javasecurity.util;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verification throughput per {@code jwt.algorithm}, to size the
+ * cost of moving from HS512 to RS256 or ES256.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtSigningBenchmark {
+
+    @Param({"HS512", "RS256", "ES256"})
+    public SigningAlgorithm algorithm;
+
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(algorithm));
+        token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+    }
+
+    @Benchmark
+    public JwtVerificationResult verify() {
+        return jwtUtil.verifyJwtToken(token);
+    }
+}
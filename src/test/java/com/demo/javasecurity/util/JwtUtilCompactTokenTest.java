@@ -0,0 +1,61 @@
+package com.demo.javasecurity.util;
+
+import com.demo.javasecurity.model.Role;
+import com.demo.javasecurity.util.JwtKeyRing.SigningAlgorithm;
+import com.demo.javasecurity.util.JwtUtil.TokenFormat;
+import com.demo.javasecurity.util.JwtVerificationResult.FailureReason;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code ct1.} tokens are accepted only when {@code jwt.format=COMPACT} or
+ * {@code jwt.accept-compact} enables them, and never once
+ * {@code jwt.accept-legacy-hmac=false} stops trusting {@code jwt.secret}.
+ */
+class JwtUtilCompactTokenTest {
+
+    private final String compactToken = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512),
+                                                             TokenFormat.COMPACT, false)
+            .generateTokenFromUsername("user", 2L, Role.USER);
+
+    @Test
+    void rejectedByDefault() {
+        JwtVerificationResult result = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512))
+                .verifyJwtToken(compactToken);
+
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.getFailureReason()).isEqualTo(FailureReason.MALFORMED);
+    }
+
+    @Test
+    void acceptedWhenIssuingCompactTokens() {
+        JwtUtil jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512), TokenFormat.COMPACT, false);
+
+        JwtVerificationResult result = jwtUtil.verifyJwtToken(compactToken);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getSubject()).isEqualTo("user");
+    }
+
+    @Test
+    void acceptedAlongsideJwtsWhenEnabled() {
+        JwtUtil jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(SigningAlgorithm.HS512), TokenFormat.JWT, true);
+
+        assertThat(jwtUtil.verifyJwtToken(compactToken).isValid()).isTrue();
+        assertThat(jwtUtil.verifyJwtToken(jwtUtil.generateTokenFromUsername("user", 2L, Role.USER)).isValid())
+                .isTrue();
+    }
+
+    @Test
+    void rejectedOnceLegacyHmacIsNoLongerAccepted() {
+        JwtKeyRing keyRing = JwtFixtures.keyRing(SigningAlgorithm.RS256);
+        ReflectionTestUtils.setField(keyRing, "acceptLegacyHmac", false);
+        JwtUtil jwtUtil = JwtFixtures.jwtUtil(keyRing, TokenFormat.JWT, true);
+
+        assertThat(jwtUtil.verifyJwtToken(compactToken).isValid()).isFalse();
+        assertThat(jwtUtil.verifyJwtToken(jwtUtil.generateTokenFromUsername("user", 2L, Role.USER)).isValid())
+                .isTrue();
+    }
+}
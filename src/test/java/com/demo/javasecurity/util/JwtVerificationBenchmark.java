@@ -0,0 +1,60 @@
+package com.demo.javasecurity.util;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.demo.javasecurity.model.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token verification cost: the original filter, which verified
+ * twice and built a new HMAC512 algorithm and verifier each time, against the
+ * single pass through the verifier built at startup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerificationBenchmark {
+
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = JwtFixtures.jwtUtil(JwtFixtures.keyRing(JwtKeyRing.SigningAlgorithm.HS512));
+        token = jwtUtil.generateTokenFromUsername("user", 2L, Role.USER);
+    }
+
+    // validateJwtToken followed by getUserNameFromJwtToken, as AuthTokenFilter did originally
+    @Benchmark
+    public String twoPassWithPerCallVerifier() {
+        newVerifier().verify(token);
+        return newVerifier().verify(token).getSubject();
+    }
+
+    @Benchmark
+    public JwtVerificationResult singlePass() {
+        return jwtUtil.verifyJwtToken(token);
+    }
+
+    private static JWTVerifier newVerifier() {
+        return JWT.require(Algorithm.HMAC512(JwtFixtures.SECRET))
+                .withIssuer(JwtUtil.ISSUER)
+                .build();
+    }
+}
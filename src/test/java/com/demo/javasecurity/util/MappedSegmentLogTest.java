@@ -0,0 +1,95 @@
+package com.demo.javasecurity.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The audit log must come back after a crash with every complete record and
+ * nothing of a torn one, and keep no more than its segment budget.
+ */
+class MappedSegmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void aTruncatedTailRecordIsDroppedOnRecovery() throws IOException {
+        MappedSegmentLog log = new MappedSegmentLog(directory, "audit", 1024, 4);
+        append(log, "first");
+        append(log, "second");
+        long committed = log.size();
+        log.close();
+        // A crash in the middle of a record: part of it reached the file, the newline did not
+        try (FileChannel segment = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.wrap("{\"torn\":".getBytes(StandardCharsets.UTF_8)), committed);
+        }
+
+        MappedSegmentLog recovered = new MappedSegmentLog(directory, "audit", 1024, 4);
+        assertThat(recovered.size()).isEqualTo(committed);
+        append(recovered, "third");
+
+        assertThat(newestFirst(recovered)).containsExactly("third", "second", "first");
+        assertThat(newestFirst(new MappedSegmentLog(directory, "audit", 1024, 4)))
+                .containsExactly("third", "second", "first");
+    }
+
+    @Test
+    void segmentsBeyondTheBudgetAreDeletedOldestFirst() throws IOException {
+        // 16-byte segments hold one 9-byte record each
+        MappedSegmentLog log = new MappedSegmentLog(directory, "audit", 16, 2);
+        for (int i = 1; i <= 5; i++) {
+            append(log, "record-" + i);
+        }
+
+        assertThat(log.segmentCount()).isEqualTo(2);
+        assertThat(segments()).extracting(path -> path.getFileName().toString())
+                .containsExactly("audit-0000000004.log", "audit-0000000005.log");
+        assertThat(newestFirst(log)).containsExactly("record-5", "record-4");
+
+        MappedSegmentLog reopened = new MappedSegmentLog(directory, "audit", 16, 2);
+        append(reopened, "record-6");
+        assertThat(newestFirst(reopened)).containsExactly("record-6", "record-5");
+        assertThat(segments()).extracting(path -> path.getFileName().toString())
+                .containsExactly("audit-0000000005.log", "audit-0000000006.log");
+    }
+
+    @Test
+    void aRecordLargerThanASegmentIsRejected() throws IOException {
+        MappedSegmentLog log = new MappedSegmentLog(directory, "audit", 16, 2);
+
+        assertThatThrownBy(() -> append(log, "a record that cannot fit"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(log.size()).isZero();
+    }
+
+    private static void append(MappedSegmentLog log, String record) throws IOException {
+        byte[] bytes = (record + '\n').getBytes(StandardCharsets.UTF_8);
+        log.append(bytes, 0, bytes.length);
+    }
+
+    private static List<String> newestFirst(MappedSegmentLog log) {
+        List<String> records = new ArrayList<>();
+        log.readBackwards(records::add);
+        return records;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo.javasecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The audit queue must hand every accepted element to the consumer exactly
+ * once and in each producer's order, across many laps of the ring.
+ */
+class MpscRingBufferTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int PER_PRODUCER = 20_000;
+
+    @Test
+    void everyElementIsDrainedOnceInProducerOrderAcrossWraparound() throws Exception {
+        // A small ring, so each slot is reused thousands of times
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(8);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                long producer = p;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < PER_PRODUCER; i++) {
+                        // Yield rather than spin: the consumer may share the only CPU
+                        while (!buffer.offer(new long[] {producer, i})) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            long[] next = new long[PRODUCERS];
+            long received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < (long) PRODUCERS * PER_PRODUCER && System.nanoTime() < deadline) {
+                int drained = buffer.drain(element -> {
+                    int producer = (int) element[0];
+                    assertThat(element[1]).isEqualTo(next[producer]);
+                    next[producer]++;
+                }, 5);
+                if (drained == 0) {
+                    Thread.yield();
+                }
+                received += drained;
+            }
+            for (Future<?> producer : producers) {
+                producer.get(5, TimeUnit.SECONDS);
+            }
+
+            assertThat(received).isEqualTo((long) PRODUCERS * PER_PRODUCER);
+            assertThat(next).containsOnly(PER_PRODUCER);
+            assertThat(buffer.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aFullBufferRejectsOffersUntilDrained() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 3)).isEqualTo(3);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isTrue();
+        assertThat(buffer.drain(drained::add, 10)).isEqualTo(3);
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new MpscRingBuffer<>(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+}